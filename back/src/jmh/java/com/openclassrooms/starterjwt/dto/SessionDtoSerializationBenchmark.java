@@ -0,0 +1,67 @@
+package com.openclassrooms.starterjwt.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of the {@code GET /api/session} payload, with an object mapper
+ * built the same way Spring MVC builds its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SessionDtoSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int sessions;
+
+    @Param({"0", "50", "500"})
+    private int participants;
+
+    private ObjectMapper objectMapper;
+
+    private List<SessionDto> dtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Long> userIds = new ArrayList<>();
+        for (long i = 1; i <= participants; i++) {
+            userIds.add(i);
+        }
+
+        dtos = new ArrayList<>(sessions);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= sessions; i++) {
+            dtos.add(new SessionDto(i, "Session " + i, new Date(), 1L, "description", userIds, now, now, null, null));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,108 @@
+package com.openclassrooms.starterjwt.mapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import com.openclassrooms.starterjwt.services.UserService;
+
+/**
+ * Mapping cost of session lists, without any database access: the services used by
+ * {@link SessionMapper#toEntity} are replaced by in-memory lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SessionMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int sessions;
+
+    @Param({"0", "50", "500"})
+    private int participants;
+
+    private SessionMapper sessionMapper;
+
+    private List<Session> entities;
+
+    private List<SessionDto> dtos;
+
+    private Map<Long, List<Long>> participantIds;
+
+    @Setup
+    public void setUp() {
+        Teacher teacher = Teacher.builder().id(1L).firstName("First").lastName("Last").build();
+        List<User> users = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        for (long i = 1; i <= participants; i++) {
+            users.add(User.builder().id(i).email("user" + i + "@test.com")
+                    .firstName("First").lastName("Last").password("password").build());
+            userIds.add(i);
+        }
+
+        SessionMapperImpl mapper = new SessionMapperImpl();
+        mapper.teacherService = new TeacherService(null) {
+            @Override
+            public Teacher getReference(Long id) {
+                return teacher;
+            }
+        };
+        mapper.userService = new UserService(null, null) {
+            @Override
+            public List<User> findAllById(List<Long> ids) {
+                return new ArrayList<>(users);
+            }
+        };
+        sessionMapper = mapper;
+
+        entities = new ArrayList<>(sessions);
+        dtos = new ArrayList<>(sessions);
+        participantIds = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= sessions; i++) {
+            entities.add(Session.builder().id(i).name("Session " + i).date(new Date()).description("description")
+                    .teacher(teacher).users(users).createdAt(now).updatedAt(now).build());
+            dtos.add(new SessionDto(i, "Session " + i, new Date(), 1L, "description", userIds, now, now, null, null));
+            participantIds.put(i, userIds);
+        }
+    }
+
+    @Benchmark
+    public List<SessionDto> toDto() {
+        return sessionMapper.toDto(entities);
+    }
+
+    @Benchmark
+    public List<SessionDto> toDtoWithParticipantIds() {
+        return sessionMapper.toDto(entities, participantIds);
+    }
+
+    @Benchmark
+    public List<Session> toEntity() {
+        return sessionMapper.toEntity(dtos);
+    }
+}
@@ -0,0 +1,62 @@
+package com.openclassrooms.starterjwt.mapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.openclassrooms.starterjwt.dto.UserDto;
+import com.openclassrooms.starterjwt.models.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int users;
+
+    private UserMapper userMapper;
+
+    private List<User> entities;
+
+    private List<UserDto> dtos;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        entities = new ArrayList<>(users);
+        dtos = new ArrayList<>(users);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= users; i++) {
+            entities.add(User.builder().id(i).email("user" + i + "@test.com").firstName("First").lastName("Last")
+                    .password("password").createdAt(now).updatedAt(now).build());
+            dtos.add(new UserDto(i, "user" + i + "@test.com", "Last", "First", false, "password", now, now));
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> toDto() {
+        return userMapper.toDto(entities);
+    }
+
+    @Benchmark
+    public List<User> toEntity() {
+        return userMapper.toEntity(dtos);
+    }
+}
@@ -0,0 +1,80 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+
+/**
+ * Token signing and verification. {@code validateUncached} runs against a cache that keeps
+ * nothing, so every call pays the full HMAC check; {@code validateCached} measures a hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils cachedJwtUtils;
+
+    private JwtUtils uncachedJwtUtils;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtils = jwtUtils(new JwtClaimsCache(10000));
+        uncachedJwtUtils = jwtUtils(new JwtClaimsCache(0, Runnable::run));
+
+        UserDetailsImpl userDetails = UserDetailsImpl.builder()
+                .id(1L)
+                .username("yoga@studio.com")
+                .firstName("Admin")
+                .lastName("Admin")
+                .admin(true)
+                .password("password")
+                .build();
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        token = cachedJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachedJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cachedJwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncachedJwtUtils.validateJwtToken(token);
+    }
+
+    private static JwtUtils jwtUtils(JwtClaimsCache claimsCache) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "openclassrooms");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCache", claimsCache);
+        return jwtUtils;
+    }
+}
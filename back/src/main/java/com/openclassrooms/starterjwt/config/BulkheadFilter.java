@@ -0,0 +1,114 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caps the number of requests of each endpoint group handled at once, so that one group cannot take
+ * all the database connections from the others once Tomcat no longer bounds concurrency. A request waits
+ * a short while for a permit of its group and is otherwise answered 503 with a {@code Retry-After}
+ * header, before it can queue on the connection pool.
+ *
+ * <p>The permit is released when the request thread returns: streams and exports going on
+ * asynchronously do not hold it. Paths outside of every group are not limited.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadFilter extends OncePerRequestFilter {
+  private final Map<String, Group> groups = new LinkedHashMap<>();
+  private final long waitMs;
+  private final long retryAfterSeconds;
+  private final MeterRegistry meterRegistry;
+
+  public BulkheadFilter(long waitMs, long retryAfterSeconds, MeterRegistry meterRegistry) {
+    this.waitMs = waitMs;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Adds a group for {@code pathPrefix} and the paths below it, matched on whole path segments; the
+   * first matching group wins.
+   */
+  public BulkheadFilter group(String name, String pathPrefix, int permits) {
+    Group group = new Group(new Semaphore(permits),
+        meterRegistry.counter("bulkhead.rejected", "group", name));
+    Gauge.builder("bulkhead.available", group.permits, Semaphore::availablePermits)
+        .tag("group", name)
+        .register(meterRegistry);
+    groups.put(pathPrefix, group);
+    return this;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Group group = group(request.getRequestURI());
+    if (group == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    if (!acquire(group.permits)) {
+      group.rejected.increment();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.getWriter().write("{\"message\":\"Error: Too many requests, please retry later.\"}");
+      return;
+    }
+
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      group.permits.release();
+    }
+  }
+
+  private Group group(String path) {
+    for (Map.Entry<String, Group> entry : groups.entrySet()) {
+      String prefix = entry.getKey();
+      if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private boolean acquire(Semaphore permits) {
+    try {
+      return permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static final class Group {
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    private Group(Semaphore permits, Counter rejected) {
+      this.permits = permits;
+      this.rejected = rejected;
+    }
+  }
+}
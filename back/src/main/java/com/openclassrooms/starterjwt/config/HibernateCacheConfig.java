@@ -0,0 +1,69 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * In-process (Caffeine/JCache) second-level and query cache for read-mostly reference data.
+ * Regions are created here with a bounded size and a TTL, so an entity or query is cached
+ * only where it opts in and Hibernate fails fast on an unknown region.
+ */
+@Configuration
+public class HibernateCacheConfig {
+  public static final String TEACHER_REGION = "teachers";
+  public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+  public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager(@Value("${oc.app.referenceCacheSize:1000}") long maximumSize,
+      @Value("${oc.app.referenceCacheTtlMs:3600000}") long ttlMs) {
+    // a manager of its own, so that several application contexts in one JVM never share regions
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+
+    cacheManager.createCache(TEACHER_REGION, bounded(maximumSize, ttlMs));
+    cacheManager.createCache(QUERY_RESULTS_REGION, bounded(maximumSize, ttlMs));
+    // timestamps decide whether a cached query result is stale, they must never be evicted
+    cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, configuration());
+
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+    return (Map<String, Object> properties) -> {
+      properties.put("hibernate.cache.use_second_level_cache", true);
+      properties.put("hibernate.cache.use_query_cache", true);
+      properties.put("hibernate.cache.region.factory_class", "jcache");
+      properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+      properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+    };
+  }
+
+  private static CaffeineConfiguration<Object, Object> bounded(long maximumSize, long ttlMs) {
+    CaffeineConfiguration<Object, Object> configuration = configuration();
+    configuration.setMaximumSize(OptionalLong.of(maximumSize));
+    configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+    return configuration;
+  }
+
+  private static CaffeineConfiguration<Object, Object> configuration() {
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    configuration.setNativeStatisticsEnabled(true);
+    return configuration;
+  }
+}
@@ -0,0 +1,21 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks the per-request statement count and timing into Hibernate, see {@link SqlStatementFilter}.
+ */
+@Configuration
+public class SqlStatementConfig {
+  @Bean
+  public HibernatePropertiesCustomizer sqlStatementCustomizer() {
+    return (Map<String, Object> properties) -> {
+      properties.put("hibernate.session_factory.statement_inspector", new SqlStatementInspector());
+      properties.put("hibernate.session.events.auto", SqlStatementListener.class.getName());
+    };
+  }
+}
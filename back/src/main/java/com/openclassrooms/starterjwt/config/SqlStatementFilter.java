@@ -0,0 +1,113 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Counts the SQL statements of each request and the time spent in them, so that an N+1 shows up before
+ * it reaches production.
+ *
+ * <p>Requests going over the statement budget of their endpoint log a warning. Budgets are keyed by
+ * method and path pattern, for example {@code GET /api/session/{id}}, and endpoints without one get the
+ * default budget. Outside of production the counts can also be sent back in the {@code X-SQL-Statements}
+ * and {@code X-SQL-Time-Ms} response headers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementFilter extends OncePerRequestFilter {
+  public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+
+  public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+  private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+  private final boolean headers;
+
+  private final long slowQueryMs;
+
+  private final int defaultBudget;
+
+  private final Map<String, Integer> budgets;
+
+  public SqlStatementFilter(@Value("${oc.app.sqlStatsHeaders:false}") boolean headers,
+      @Value("${oc.app.sqlSlowQueryMs:200}") long slowQueryMs,
+      @Value("${oc.app.sqlStatementBudget:10}") int defaultBudget,
+      @Value("#{${oc.app.sqlStatementBudgets:{:}}}") Map<String, Integer> budgets) {
+    this.headers = headers;
+    this.slowQueryMs = slowQueryMs;
+    this.defaultBudget = defaultBudget;
+    this.budgets = budgets;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    SqlStatementStats stats = SqlStatementStats.start(slowQueryMs);
+    StatsHeaderResponse statsResponse = headers ? new StatsHeaderResponse(response, stats) : null;
+    try {
+      filterChain.doFilter(request, statsResponse != null ? statsResponse : response);
+    } finally {
+      SqlStatementStats.stop();
+      if (statsResponse != null) {
+        statsResponse.onResponseCommitted();
+      }
+      // an asynchronous request goes on on another thread, its count stops here
+      if (!request.isAsyncStarted()) {
+        checkBudget(request, stats);
+      }
+    }
+  }
+
+  private void checkBudget(HttpServletRequest request, SqlStatementStats stats) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    if (pattern == null) {
+      return;
+    }
+
+    String endpoint = request.getMethod() + " " + pattern;
+    int budget = budgets.getOrDefault(endpoint, defaultBudget);
+    if (stats.getStatementCount() > budget) {
+      logger.warn("SQL statement budget exceeded {} {} {} {}", kv("endpoint", endpoint),
+          kv("statements", stats.getStatementCount()), kv("budget", budget), kv("timeMs", stats.getTimeMs()));
+    }
+  }
+
+  /**
+   * Adds the headers just before the response is committed, once the body starts being written.
+   */
+  private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+    private final SqlStatementStats stats;
+
+    private StatsHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+      super(response);
+      this.stats = stats;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+      if (isDisableOnResponseCommitted() || isCommitted()) {
+        return;
+      }
+      disableOnResponseCommitted();
+      setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatementCount()));
+      setHeader(TIME_HEADER, String.valueOf(stats.getTimeMs()));
+    }
+  }
+}
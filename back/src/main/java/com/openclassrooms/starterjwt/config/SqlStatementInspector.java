@@ -0,0 +1,18 @@
+package com.openclassrooms.starterjwt.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands every statement Hibernate prepares to the stats of the current request, before its bind
+ * values are set.
+ */
+public class SqlStatementInspector implements StatementInspector {
+  @Override
+  public String inspect(String sql) {
+    SqlStatementStats stats = SqlStatementStats.current();
+    if (stats != null) {
+      stats.prepared(sql);
+    }
+    return sql;
+  }
+}
@@ -0,0 +1,37 @@
+package com.openclassrooms.starterjwt.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times the statements and batches executed by a Hibernate session. Hibernate creates one per session.
+ */
+public class SqlStatementListener extends BaseSessionEventListener {
+  private long start;
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    this.start = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    executed();
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    this.start = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    executed();
+  }
+
+  private void executed() {
+    SqlStatementStats stats = SqlStatementStats.current();
+    if (stats != null) {
+      stats.executed(System.nanoTime() - this.start);
+    }
+  }
+}
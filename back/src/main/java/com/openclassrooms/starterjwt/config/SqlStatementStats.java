@@ -0,0 +1,80 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Statements run while handling the current request and the time spent in them, bound to the request
+ * thread by {@link SqlStatementFilter}. Nothing is recorded outside of a request, such as at startup or
+ * while an export streams on another thread.
+ */
+public final class SqlStatementStats {
+  private static final Logger logger = LoggerFactory.getLogger(SqlStatementStats.class);
+
+  private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+  private final long slowQueryNanos;
+
+  private int statementCount;
+
+  private long nanos;
+
+  private String sql;
+
+  private SqlStatementStats(long slowQueryMs) {
+    this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+  }
+
+  static SqlStatementStats start(long slowQueryMs) {
+    SqlStatementStats stats = new SqlStatementStats(slowQueryMs);
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  static void stop() {
+    CURRENT.remove();
+  }
+
+  static SqlStatementStats current() {
+    return CURRENT.get();
+  }
+
+  void prepared(String sql) {
+    this.sql = sql;
+  }
+
+  void executed(long elapsedNanos) {
+    this.statementCount++;
+    this.nanos += elapsedNanos;
+
+    if (elapsedNanos >= this.slowQueryNanos && this.sql != null) {
+      // the statement as prepared, bind values never reach the log
+      logger.warn("Slow query {} {} {}", kv("timeMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos)),
+          kv("binds", binds(this.sql)), kv("sql", shape(this.sql)));
+    }
+  }
+
+  public int getStatementCount() {
+    return this.statementCount;
+  }
+
+  public long getTimeMs() {
+    return TimeUnit.NANOSECONDS.toMillis(this.nanos);
+  }
+
+  /**
+   * The statement with its whitespace collapsed and its {@code IN} lists folded, so that the same query
+   * logs the same way whatever the number of ids it was given.
+   */
+  static String shape(String sql) {
+    return sql.trim().replaceAll("\\s+", " ").replaceAll("\\?(\\s*,\\s*\\?)+", "?...");
+  }
+
+  private static long binds(String sql) {
+    return sql.chars().filter(c -> c == '?').count();
+  }
+}
@@ -0,0 +1,71 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Opt-in mode ({@code oc.app.virtualThreads=true}) handling each request, and the MVC async and
+ * {@code @Async} work, on a virtual thread of its own. Blocking on JDBC or on the password hashing pool
+ * then no longer holds one of {@code server.tomcat.threads.max} threads: the connection pool is the real
+ * concurrency limit, and {@link BulkheadFilter} shares it between the auth and session endpoints. Their
+ * permits add up to less than the pool size, leaving connections to the other endpoints, so an overload
+ * is answered 503 by the bulkhead rather than 500 by a connection timeout.
+ *
+ * <p>Virtual threads need a Java 21 runtime while the build still targets Java 11, so the executor is
+ * looked up at startup, which fails on an older runtime rather than silently keeping platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "oc.app.virtualThreads", havingValue = "true")
+public class VirtualThreadConfig {
+  @Bean
+  public ExecutorService virtualThreadExecutor() {
+    return newVirtualThreadPerTaskExecutor();
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+      ExecutorService virtualThreadExecutor) {
+    return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+  }
+
+  @Bean(name = {
+      TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+      AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+  public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+    return new TaskExecutorAdapter(virtualThreadExecutor);
+  }
+
+  @Bean
+  public BulkheadFilter bulkheadFilter(@Value("${oc.app.bulkheadWaitMs:100}") long waitMs,
+      @Value("${oc.app.bulkheadRetryAfterSeconds:1}") long retryAfterSeconds,
+      @Value("${oc.app.bulkheadAuthPermits:6}") int authPermits,
+      @Value("${oc.app.bulkheadSessionPermits:10}") int sessionPermits,
+      MeterRegistry meterRegistry) {
+    return new BulkheadFilter(waitMs, retryAfterSeconds, meterRegistry)
+        .group("auth", "/api/auth", authPermits)
+        .group("session", "/api/session", sessionPermits);
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("oc.app.virtualThreads needs a Java 21 runtime, this one is " + Runtime.version());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot create the virtual thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.openclassrooms.starterjwt.config.HibernateCacheConfig;
+import com.openclassrooms.starterjwt.payload.response.CacheStatsResponse;
+import com.openclassrooms.starterjwt.security.jwt.JwtClaimsCache;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import javax.cache.CacheManager;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    private final JwtClaimsCache jwtClaimsCache;
+    private final UserDetailsCache userDetailsCache;
+    private final CacheManager hibernateCacheManager;
+
+    public CacheController(JwtClaimsCache jwtClaimsCache,
+                           UserDetailsCache userDetailsCache,
+                           CacheManager hibernateCacheManager) {
+        this.jwtClaimsCache = jwtClaimsCache;
+        this.userDetailsCache = userDetailsCache;
+        this.hibernateCacheManager = hibernateCacheManager;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!Boolean.TRUE.equals(userDetails.getAdmin())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok().body(List.of(
+                new CacheStatsResponse("jwtClaims", this.jwtClaimsCache.size(), this.jwtClaimsCache.stats()),
+                new CacheStatsResponse("userDetails", this.userDetailsCache.size(), this.userDetailsCache.stats()),
+                regionStats(HibernateCacheConfig.TEACHER_REGION),
+                regionStats(HibernateCacheConfig.QUERY_RESULTS_REGION)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheStatsResponse regionStats(String region) {
+        Cache<Object, Object> cache = this.hibernateCacheManager.getCache(region)
+                .unwrap(Cache.class);
+        return new CacheStatsResponse(region, cache.estimatedSize(), cache.stats());
+    }
+}
@@ -0,0 +1,37 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Validators for conditional GETs. They are computed from what a handler has already loaded,
+ * so an unchanged resource is answered with 304 before it is mapped or serialized.
+ */
+final class ConditionalGet {
+    private ConditionalGet() {
+    }
+
+    /**
+     * Strong ETag over the given version parts, e.g. an id and its update timestamp.
+     */
+    static String etag(Object... parts) {
+        String version = Arrays.stream(parts).map(ConditionalGet::part).collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    private static String part(Object part) {
+        if (part instanceof LocalDateTime) {
+            return String.valueOf(lastModified((LocalDateTime) part));
+        }
+        return String.valueOf(part);
+    }
+}
@@ -0,0 +1,101 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Responses of the requests sent with an {@code Idempotency-Key} header, kept in memory for a bounded
+ * time and count so that a retried request is answered without running it again.
+ *
+ * <p>Keys are scoped to the authenticated user. A key reused for another request is rejected with 422,
+ * and a retry arriving while the first request still runs with 409. Requests that fail with an
+ * exception are not stored, so they can be retried with the same key.
+ */
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(@Value("${oc.app.idempotencyCacheSize:10000}") long maximumSize,
+                            @Value("${oc.app.idempotencyTtlMs:86400000}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Runs the request unless a response is stored for the key. {@code parts} identify the request,
+     * a retry has to send the same ones.
+     */
+    public ResponseEntity<?> execute(String key, Supplier<ResponseEntity<?>> request, Object... parts) {
+        if (key == null) {
+            return request.get();
+        }
+
+        Entry entry = new Entry(fingerprint(parts));
+        Entry existing = this.cache.asMap().putIfAbsent(scope(key), entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(entry.fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            ResponseEntity<?> stored = existing.response;
+            if (stored == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.status(stored.getStatusCode())
+                    .headers(stored.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(stored.getBody());
+        }
+
+        try {
+            ResponseEntity<?> response = request.get();
+            entry.response = response;
+            return response;
+        } catch (RuntimeException e) {
+            this.cache.asMap().remove(scope(key), entry);
+            throw e;
+        }
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    private static String scope(String key) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (authentication != null ? authentication.getName() : "") + "|" + key;
+    }
+
+    private static String fingerprint(Object... parts) {
+        String joined = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        return DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+
+        private volatile ResponseEntity<?> response;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -4,31 +4,75 @@ package com.openclassrooms.starterjwt.controllers;
 import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionPatchRequest;
+import com.openclassrooms.starterjwt.payload.response.SessionBatchItemResponse;
+import com.openclassrooms.starterjwt.payload.response.SessionPageResponse;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.ParticipationStatus;
+import com.openclassrooms.starterjwt.services.SessionExportFormat;
+import com.openclassrooms.starterjwt.services.SessionExportService;
 import com.openclassrooms.starterjwt.services.SessionService;
-import lombok.extern.log4j.Log4j2;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/session")
-@Log4j2
+@Slf4j
 public class SessionController {
     private final SessionMapper sessionMapper;
     private final SessionService sessionService;
+    private final SessionExportService sessionExportService;
+    private final TeacherService teacherService;
+    private final Validator validator;
+    private final IdempotencyStore idempotencyStore;
 
 
     public SessionController(SessionService sessionService,
-                             SessionMapper sessionMapper) {
+                             SessionMapper sessionMapper,
+                             SessionExportService sessionExportService,
+                             TeacherService teacherService,
+                             Validator validator,
+                             IdempotencyStore idempotencyStore) {
         this.sessionMapper = sessionMapper;
         this.sessionService = sessionService;
+        this.sessionExportService = sessionExportService;
+        this.teacherService = teacherService;
+        this.validator = validator;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+    public ResponseEntity<?> findById(@PathVariable("id") String id, WebRequest request) {
         try {
             Session session = this.sessionService.getById(Long.valueOf(id));
 
@@ -36,35 +80,142 @@ public class SessionController {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+            List<Session> sessions = List.of(session);
+            Map<Long, List<Long>> participantIds = this.sessionService.findParticipantIds(sessions);
+            String etag = etag(sessions, participantIds);
+            long lastModified = ConditionalGet.lastModified(session.getUpdatedAt());
+            if (request.checkNotModified(etag, lastModified)) {
+                return null;
+            }
+
+            return ResponseEntity.ok().eTag(etag).lastModified(lastModified)
+                    .body(this.sessionMapper.toDto(sessions, participantIds).get(0));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping()
-    public ResponseEntity<?> findAll() {
+    public ResponseEntity<?> findAll(WebRequest request) {
         List<Session> sessions = this.sessionService.findAll();
+        Map<Long, List<Long>> participantIds = this.sessionService.findParticipantIds(sessions);
 
-        return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions));
+        String etag = etag(sessions, participantIds);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(this.sessionMapper.toDto(sessions, participantIds));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> findAllSummaries() {
+        return ResponseEntity.ok().body(this.sessionService.findAllSummaries());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                        NativeWebRequest request) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!Boolean.TRUE.equals(userDetails.getAdmin())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        SessionExportFormat exportFormat = SessionExportFormat.of(format);
+        StreamingResponseBody body = out -> this.sessionExportService.export(exportFormat, out);
+
+        // the body is written asynchronously: give this request alone the export timeout
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.createAsyncWebRequest(
+                request.getNativeRequest(HttpServletRequest.class), request.getNativeResponse(HttpServletResponse.class));
+        asyncWebRequest.setTimeout(this.sessionExportService.getTimeoutMs());
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sessions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(params = {"from", "to"})
+    public ResponseEntity<?> findCalendar(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                          @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                          @RequestParam(value = "teacherId", required = false) Long teacherId) {
+        return ResponseEntity.ok().body(this.sessionService.findCalendar(from, to, teacherId));
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<?> findPage(@RequestParam("size") int size,
+                                      @RequestParam(value = "page", required = false) Integer page,
+                                      @RequestParam(value = "cursor", required = false) String cursor) {
+        if (page != null && cursor != null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<Session> sessions = page != null
+                ? this.sessionService.findPage(page, size)
+                : this.sessionService.findAfter(cursor != null ? SessionCursor.decode(cursor) : null, size);
+
+        List<Session> content = sessions.getContent();
+        List<SessionDto> items = this.sessionMapper.toDto(content, this.sessionService.findParticipantIds(content));
+
+        return ResponseEntity.ok().body(SessionPageResponse.of(sessions, items, page, size));
     }
 
     @PostMapping()
-    public ResponseEntity<?> create(@Valid @RequestBody SessionDto sessionDto) {
-        log.info(sessionDto);
+    public ResponseEntity<?> create(@Valid @RequestBody SessionDto sessionDto,
+                                    @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return this.idempotencyStore.execute(idempotencyKey, () -> {
+            Session session = this.sessionService.create(this.sessionMapper.toEntity(sessionDto));
+
+            log.info("Session created {} {}", kv("sessionId", session.getId()), kv("teacherId", sessionDto.getTeacher_id()));
+            return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+        }, "create", sessionDto);
+    }
+
+    /**
+     * Creates the items without id and updates the others, all or nothing. When an item is invalid nothing
+     * is written and the response lists the errors of each item. The participants of updated items are
+     * left as they are.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveAll(@RequestBody List<SessionDto> sessionDtos) {
+        if (sessionDtos.isEmpty() || sessionDtos.size() > SessionService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        Session session = this.sessionService.create(this.sessionMapper.toEntity(sessionDto));
+        List<SessionBatchItemResponse> results = validate(sessionDtos);
+        if (results.stream().anyMatch(result -> !result.getErrors().isEmpty())) {
+            return ResponseEntity.badRequest().body(results);
+        }
+
+        List<Session> sessions = this.sessionService.saveAll(this.sessionMapper.toEntity(sessionDtos));
+        for (int i = 0; i < sessions.size(); i++) {
+            results.get(i).setId(sessions.get(i).getId());
+        }
 
-        log.info(session);
-        return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+        return ResponseEntity.ok().body(results);
     }
 
     @PutMapping("{id}")
     public ResponseEntity<?> update(@PathVariable("id") String id, @Valid @RequestBody SessionDto sessionDto) {
         try {
-            Session session = this.sessionService.update(Long.parseLong(id), this.sessionMapper.toEntity(sessionDto));
+            // participants are not replaced by an update, only joins and leaves change them
+            Session session = this.sessionService.update(Long.parseLong(id), this.sessionMapper.toEntityWithoutUsers(sessionDto));
 
-            return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+            List<Session> sessions = List.of(session);
+            return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions, this.sessionService.findParticipantIds(sessions)).get(0));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("{id}")
+    public ResponseEntity<?> patch(@PathVariable("id") String id, @Valid @RequestBody SessionPatchRequest patchRequest) {
+        try {
+            Session session = this.sessionService.patch(Long.parseLong(id), patchRequest);
+
+            List<Session> sessions = List.of(session);
+            return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions, this.sessionService.findParticipantIds(sessions)).get(0));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -86,12 +237,26 @@ public class SessionController {
         }
     }
 
+    /**
+     * A retry sent with the same {@code Idempotency-Key} gets the first answer back instead of the
+     * 400 that joining twice would give.
+     */
     @PostMapping("{id}/participate/{userId}")
-    public ResponseEntity<?> participate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+    public ResponseEntity<?> participate(@PathVariable("id") String id, @PathVariable("userId") String userId,
+                                         @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         try {
-            this.sessionService.participate(Long.parseLong(id), Long.parseLong(userId));
+            long parsedId = Long.parseLong(id);
+            long parsedUserId = Long.parseLong(userId);
 
-            return ResponseEntity.ok().build();
+            return this.idempotencyStore.execute(idempotencyKey, () -> {
+                ParticipationStatus status = this.sessionService.participate(parsedId, parsedUserId);
+
+                if (status == ParticipationStatus.WAITLISTED) {
+                    return ResponseEntity.accepted().build();
+                }
+
+                return ResponseEntity.ok().build();
+            }, "participate", parsedId, parsedUserId);
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -107,4 +272,42 @@ public class SessionController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Joining or leaving a session only writes PARTICIPATE, so the participant ids are part of the
+     * version alongside the update timestamp.
+     */
+    private static String etag(List<Session> sessions, Map<Long, List<Long>> participantIds) {
+        return ConditionalGet.etag(sessions.stream()
+                .map(s -> s.getId() + ":" + ConditionalGet.lastModified(s.getUpdatedAt()) + ":"
+                        + participantIds.getOrDefault(s.getId(), Collections.emptyList()))
+                .toArray());
+    }
+
+    private List<SessionBatchItemResponse> validate(List<SessionDto> sessionDtos) {
+        Set<Long> teacherIds = this.teacherService.findAll().stream().map(Teacher::getId).collect(Collectors.toSet());
+
+        List<SessionBatchItemResponse> results = new ArrayList<>(sessionDtos.size());
+        for (int i = 0; i < sessionDtos.size(); i++) {
+            SessionDto sessionDto = sessionDtos.get(i);
+            List<String> errors = new ArrayList<>();
+            if (sessionDto == null) {
+                errors.add("session: must not be null");
+            } else {
+                for (ConstraintViolation<SessionDto> violation : this.validator.validate(sessionDto)) {
+                    errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                }
+                if (sessionDto.getTeacher_id() != null && !teacherIds.contains(sessionDto.getTeacher_id())) {
+                    errors.add("teacher_id: unknown teacher");
+                }
+                if (sessionDto.getId() == null && sessionDto.getCapacity() != null && sessionDto.getUsers() != null
+                        && sessionDto.getUsers().size() > sessionDto.getCapacity()) {
+                    errors.add("users: more participants than capacity");
+                }
+            }
+            Collections.sort(errors);
+            results.add(new SessionBatchItemResponse(i, sessionDto != null ? sessionDto.getId() : null, errors));
+        }
+        return results;
+    }
 }
@@ -0,0 +1,36 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.services.SessionEventBroker;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/session")
+public class SessionEventController {
+    private final SessionEventBroker sessionEventBroker;
+
+    public SessionEventController(SessionEventBroker sessionEventBroker) {
+        this.sessionEventBroker = sessionEventBroker;
+    }
+
+    /**
+     * Stream of session changes. A reconnecting client sends back the last id it received in
+     * {@code Last-Event-ID} and is first sent the events it missed.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            Long parsedLastEventId = lastEventId != null ? Long.valueOf(lastEventId) : null;
+
+            // proxies must not hold the events back
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(this.sessionEventBroker.subscribe(parsedLastEventId));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
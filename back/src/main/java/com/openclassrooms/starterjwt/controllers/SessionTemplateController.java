@@ -0,0 +1,98 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.dto.SessionTemplateDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.mapper.SessionTemplateMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import com.openclassrooms.starterjwt.services.ParticipationStatus;
+import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.SessionTemplateService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.Date;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/session-template")
+public class SessionTemplateController {
+    private final SessionTemplateMapper sessionTemplateMapper;
+    private final SessionTemplateService sessionTemplateService;
+    private final SessionMapper sessionMapper;
+    private final SessionService sessionService;
+
+
+    public SessionTemplateController(SessionTemplateService sessionTemplateService,
+                                     SessionTemplateMapper sessionTemplateMapper,
+                                     SessionService sessionService,
+                                     SessionMapper sessionMapper) {
+        this.sessionTemplateMapper = sessionTemplateMapper;
+        this.sessionTemplateService = sessionTemplateService;
+        this.sessionMapper = sessionMapper;
+        this.sessionService = sessionService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+        try {
+            SessionTemplate template = this.sessionTemplateService.getById(Long.valueOf(id));
+
+            if (template == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok().body(this.sessionTemplateMapper.toDto(template));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping()
+    public ResponseEntity<?> findAll() {
+        return ResponseEntity.ok().body(this.sessionTemplateMapper.toDto(this.sessionTemplateService.findAll()));
+    }
+
+    @PostMapping()
+    public ResponseEntity<?> create(@Valid @RequestBody SessionTemplateDto sessionTemplateDto) {
+        SessionTemplate template = this.sessionTemplateService.create(this.sessionTemplateMapper.toEntity(sessionTemplateDto));
+
+        return ResponseEntity.ok().body(this.sessionTemplateMapper.toDto(template));
+    }
+
+    @PutMapping("{id}")
+    public ResponseEntity<?> update(@PathVariable("id") String id, @Valid @RequestBody SessionTemplateDto sessionTemplateDto) {
+        try {
+            SessionTemplate template = this.sessionTemplateService.update(Long.parseLong(id),
+                    this.sessionTemplateMapper.toEntity(sessionTemplateDto));
+
+            return ResponseEntity.ok().body(this.sessionTemplateMapper.toDto(template));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Joins one occurrence of the template, storing it as a session first if nobody joined it yet.
+     * The stored session is returned so that later calls can use the session endpoints.
+     */
+    @PostMapping("{id}/participate/{userId}")
+    public ResponseEntity<?> participate(@PathVariable("id") String id, @PathVariable("userId") String userId,
+                                         @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date date) {
+        try {
+            long parsedUserId = Long.parseLong(userId);
+            Session session = this.sessionTemplateService.materialize(Long.parseLong(id), date);
+            ParticipationStatus status = this.sessionService.participate(session.getId(), parsedUserId);
+
+            List<Session> sessions = List.of(session);
+            return ResponseEntity.status(status == ParticipationStatus.WAITLISTED ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                    .body(this.sessionMapper.toDto(sessions, this.sessionService.findParticipantIds(sessions)).get(0));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.services.TeacherService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -22,7 +23,7 @@ public class TeacherController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+    public ResponseEntity<?> findById(@PathVariable("id") String id, WebRequest request) {
         try {
             Teacher teacher = this.teacherService.findById(Long.valueOf(id));
 
@@ -30,16 +31,27 @@ public class TeacherController {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok().body(this.teacherMapper.toDto(teacher));
+            String etag = ConditionalGet.etag(teacher.getId(), teacher.getUpdatedAt());
+            long lastModified = ConditionalGet.lastModified(teacher.getUpdatedAt());
+            if (request.checkNotModified(etag, lastModified)) {
+                return null;
+            }
+
+            return ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(this.teacherMapper.toDto(teacher));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping()
-    public ResponseEntity<?> findAll() {
+    public ResponseEntity<?> findAll(WebRequest request) {
         List<Teacher> teachers = this.teacherService.findAll();
 
-        return ResponseEntity.ok().body(this.teacherMapper.toDto(teachers));
+        String etag = ConditionalGet.etag(teachers.stream().map(t -> t.getId() + ":" + ConditionalGet.lastModified(t.getUpdatedAt())).toArray());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(this.teacherMapper.toDto(teachers));
     }
 }
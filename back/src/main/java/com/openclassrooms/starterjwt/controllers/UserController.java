@@ -1,14 +1,26 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.mapper.UserMapper;
+import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.response.SessionPageResponse;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.SessionService;
 import com.openclassrooms.starterjwt.services.UserService;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -17,16 +29,22 @@ import java.util.Objects;
 public class UserController {
     private final UserMapper userMapper;
     private final UserService userService;
+    private final SessionMapper sessionMapper;
+    private final SessionService sessionService;
 
 
     public UserController(UserService userService,
-                             UserMapper userMapper) {
+                             UserMapper userMapper,
+                             SessionService sessionService,
+                             SessionMapper sessionMapper) {
         this.userMapper = userMapper;
         this.userService = userService;
+        this.sessionMapper = sessionMapper;
+        this.sessionService = sessionService;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+    public ResponseEntity<?> findById(@PathVariable("id") String id, WebRequest request) {
         try {
             User user = this.userService.findById(Long.valueOf(id));
 
@@ -34,7 +52,13 @@ public class UserController {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok().body(this.userMapper.toDto(user));
+            String etag = ConditionalGet.etag(user.getId(), user.getUpdatedAt());
+            long lastModified = ConditionalGet.lastModified(user.getUpdatedAt());
+            if (request.checkNotModified(etag, lastModified)) {
+                return null;
+            }
+
+            return ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(this.userMapper.toDto(user));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -61,4 +85,44 @@ public class UserController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @GetMapping("/me/sessions")
+    public ResponseEntity<?> findMySessions(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                            @RequestParam(value = "page", required = false) Integer page,
+                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                            @RequestParam(value = "size", defaultValue = "20") int size) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        return findSessionsOf(userDetails.getId(), from, to, page, cursor, size);
+    }
+
+    @GetMapping("/{id}/sessions")
+    public ResponseEntity<?> findSessions(@PathVariable("id") String id,
+                                          @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                          @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                          @RequestParam(value = "page", required = false) Integer page,
+                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                          @RequestParam(value = "size", defaultValue = "20") int size) {
+        try {
+            return findSessionsOf(Long.valueOf(id), from, to, page, cursor, size);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<?> findSessionsOf(Long userId, Date from, Date to, Integer page, String cursor, int size) {
+        if (page != null && cursor != null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<Session> sessions = page != null
+                ? this.sessionService.findPageByParticipant(userId, from, to, page, size)
+                : this.sessionService.findByParticipantAfter(userId, from, to, cursor != null ? SessionCursor.decode(cursor) : null, size);
+
+        List<Session> content = sessions.getContent();
+        List<SessionDto> items = this.sessionMapper.toDto(content, this.sessionService.findParticipantIds(content));
+
+        return ResponseEntity.ok().body(SessionPageResponse.of(sessions, items, page, size));
+    }
 }
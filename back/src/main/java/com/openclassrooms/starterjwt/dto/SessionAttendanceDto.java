@@ -0,0 +1,28 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionAttendanceDto {
+    private Long sessionId;
+
+    private String sessionName;
+
+    private Date sessionDate;
+
+    private Long teacherId;
+
+    private Long userId;
+
+    private String userEmail;
+
+    private String userLastName;
+
+    private String userFirstName;
+}
@@ -0,0 +1,31 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionCalendarDto {
+    private Long id;
+
+    private String name;
+
+    private Date date;
+
+    private Long teacher_id;
+
+    private String teacherFirstName;
+
+    private String teacherLastName;
+
+    private Integer participantCount;
+
+    /**
+     * Template of a recurring occurrence; {@code id} is null while the occurrence is not stored yet.
+     */
+    private Long templateId;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -36,4 +37,9 @@ public class SessionDto {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    @Min(1)
+    private Integer capacity;
+
+    private Long version;
 }
@@ -0,0 +1,29 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSummaryDto {
+    private Long id;
+
+    private String name;
+
+    private Date date;
+
+    private Long teacher_id;
+
+    private String description;
+
+    private Integer participantCount;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
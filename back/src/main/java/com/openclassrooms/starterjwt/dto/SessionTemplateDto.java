@@ -0,0 +1,56 @@
+package com.openclassrooms.starterjwt.dto;
+
+import com.openclassrooms.starterjwt.models.RecurrenceFrequency;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionTemplateDto {
+    private Long id;
+
+    @NotBlank
+    @Size(max = 50)
+    private String name;
+
+    @NotNull
+    @Size(max = 2500)
+    private String description;
+
+    @NotNull
+    private Long teacher_id;
+
+    @Min(1)
+    private Integer capacity;
+
+    @NotNull
+    private Date start;
+
+    @NotNull
+    private RecurrenceFrequency frequency;
+
+    @Min(1)
+    private int interval = 1;
+
+    @Min(1)
+    private Integer count;
+
+    private Date until;
+
+    private List<LocalDate> exceptions;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -8,12 +8,17 @@ import com.openclassrooms.starterjwt.services.UserService;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
+import org.mapstruct.Named;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -27,11 +32,53 @@ public abstract class SessionMapper implements EntityMapper<SessionDto, Session>
 
     @Mappings({
             @Mapping(source = "description", target = "description"),
-            @Mapping(target = "teacher", expression = "java(sessionDto.getTeacher_id() != null ? this.teacherService.findById(sessionDto.getTeacher_id()) : null)"),
-            @Mapping(target = "users", expression = "java(Optional.ofNullable(sessionDto.getUsers()).orElseGet(Collections::emptyList).stream().map(user_id -> { User user = this.userService.findById(user_id); if (user != null) { return user; } return null; }).collect(Collectors.toList()))"),
+            @Mapping(target = "teacher", expression = "java(sessionDto.getTeacher_id() != null ? this.teacherService.getReference(sessionDto.getTeacher_id()) : null)"),
+            @Mapping(target = "users", expression = "java(this.userService.findAllById(sessionDto.getUsers()))"),
+            @Mapping(target = "seatsTaken", ignore = true),
+            @Mapping(target = "template", ignore = true),
     })
     public abstract Session toEntity(SessionDto sessionDto);
 
+    @Named("entityWithoutUsers")
+    @Mappings({
+            @Mapping(source = "description", target = "description"),
+            @Mapping(target = "teacher", expression = "java(sessionDto.getTeacher_id() != null ? this.teacherService.getReference(sessionDto.getTeacher_id()) : null)"),
+            @Mapping(target = "users", ignore = true),
+            @Mapping(target = "seatsTaken", ignore = true),
+            @Mapping(target = "template", ignore = true),
+    })
+    public abstract Session toEntityWithoutUsers(SessionDto sessionDto);
+
+    /**
+     * Loads the participants of every dto with a single query instead of one per dto.
+     */
+    @Override
+    public List<Session> toEntity(List<SessionDto> sessionDtos) {
+        if (sessionDtos == null) {
+            return null;
+        }
+
+        Map<Long, User> users = this.userService.findAllById(sessionDtos.stream()
+                        .filter(Objects::nonNull)
+                        .flatMap(sessionDto -> Optional.ofNullable(sessionDto.getUsers()).orElseGet(Collections::emptyList).stream())
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return sessionDtos.stream().map(sessionDto -> {
+            if (sessionDto == null) {
+                return null;
+            }
+            Session session = toEntityWithoutUsers(sessionDto);
+            session.setUsers(Optional.ofNullable(sessionDto.getUsers()).orElseGet(Collections::emptyList).stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .map(users::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+            return session;
+        }).collect(Collectors.toList());
+    }
 
     @Mappings({
             @Mapping(source = "description", target = "description"),
@@ -39,4 +86,20 @@ public abstract class SessionMapper implements EntityMapper<SessionDto, Session>
             @Mapping(target = "users", expression = "java(Optional.ofNullable(session.getUsers()).orElseGet(Collections::emptyList).stream().map(u -> u.getId()).collect(Collectors.toList()))"),
     })
     public abstract SessionDto toDto(Session session);
+
+    @Named("dtoWithoutUsers")
+    @Mappings({
+            @Mapping(source = "description", target = "description"),
+            @Mapping(source = "session.teacher.id", target = "teacher_id"),
+            @Mapping(target = "users", ignore = true),
+    })
+    public abstract SessionDto toDtoWithoutUsers(Session session);
+
+    public List<SessionDto> toDto(List<Session> sessions, Map<Long, List<Long>> participantIds) {
+        return sessions.stream().map(session -> {
+            SessionDto sessionDto = toDtoWithoutUsers(session);
+            sessionDto.setUsers(participantIds.getOrDefault(session.getId(), Collections.emptyList()));
+            return sessionDto;
+        }).collect(Collectors.toList());
+    }
 }
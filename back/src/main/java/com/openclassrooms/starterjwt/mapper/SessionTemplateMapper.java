@@ -0,0 +1,28 @@
+package com.openclassrooms.starterjwt.mapper;
+
+import com.openclassrooms.starterjwt.dto.SessionTemplateDto;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Mapper(componentModel = "spring")
+public abstract class SessionTemplateMapper implements EntityMapper<SessionTemplateDto, SessionTemplate> {
+
+    @Autowired
+    TeacherService teacherService;
+
+    @Mappings({
+            @Mapping(target = "teacher", expression = "java(sessionTemplateDto.getTeacher_id() != null ? this.teacherService.getReference(sessionTemplateDto.getTeacher_id()) : null)"),
+    })
+    public abstract SessionTemplate toEntity(SessionTemplateDto sessionTemplateDto);
+
+    @Mappings({
+            @Mapping(source = "sessionTemplate.teacher.id", target = "teacher_id"),
+    })
+    public abstract SessionTemplateDto toDto(SessionTemplate sessionTemplate);
+}
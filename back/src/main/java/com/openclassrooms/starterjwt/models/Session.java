@@ -3,11 +3,14 @@ package com.openclassrooms.starterjwt.models;
 
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -16,7 +19,10 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "SESSIONS")
+@Table(name = "SESSIONS", indexes = {
+        @Index(name = "idx_sessions_date_id", columnList = "date, id"),
+        @Index(name = "idx_sessions_teacher_date", columnList = "teacher_id, date")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_sessions_template_date", columnNames = {"template_id", "date"}))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Accessors(chain = true)
@@ -26,8 +32,19 @@ import java.util.List;
 @AllArgsConstructor
 @ToString
 public class Session {
+    /**
+     * Ids come from the SESSION_SEQ table in blocks of {@code hibernate.jdbc.batch_size}, so the
+     * insert is deferred to flush and can be batched; IDENTITY would insert on persist, row by row.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "session_id")
+    @GenericGenerator(name = "session_id", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "SESSION_SEQ"),
+            @Parameter(name = "force_table_use", value = "true"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+            @Parameter(name = "initial_value", value = "1"),
+            @Parameter(name = "increment_size", value = "50")
+    })
     private Long id;
 
     @NotBlank
@@ -41,17 +58,46 @@ public class Session {
     @Size(max = 2500)
     private String description;
 
+    @Min(1)
+    private Integer capacity;
+
+    /**
+     * Written on insert, then only by the seat reservation statements: updating the session never
+     * sends a value read before a concurrent join.
+     */
+    @Column(name = "seats_taken", nullable = false, updatable = false)
+    private int seatsTaken;
+
     @OneToOne
     @JoinColumn(name = "teacher_id", referencedColumnName = "id")
     private Teacher teacher;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "PARTICIPATE",
             joinColumns = @JoinColumn( name = "session_id" ),
-            inverseJoinColumns = @JoinColumn( name = "user_id" ) )
+            inverseJoinColumns = @JoinColumn( name = "user_id" ),
+            uniqueConstraints = @UniqueConstraint(columnNames = {"session_id", "user_id"}),
+            indexes = @Index(name = "idx_participate_user_session", columnList = "user_id, session_id") )
+    @ToString.Exclude
     private List<User> users;
 
+    /**
+     * Set when the session is a stored occurrence of a template; never changed by updates.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id", updatable = false)
+    @ToString.Exclude
+    private SessionTemplate template;
+
+    /**
+     * Checked and bumped by edits of the session. Seat reservations update the row with bulk
+     * statements that leave it alone, so joining a session does not make a pending edit stale; edits
+     * in turn never write the participants nor the seats taken, so they cannot undo such a join.
+     */
+    @Version
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
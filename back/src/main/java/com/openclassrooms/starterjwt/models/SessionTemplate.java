@@ -0,0 +1,88 @@
+package com.openclassrooms.starterjwt.models;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * A session repeated every {@code interval} days or weeks from {@code start}, until {@code count}
+ * occurrences or the {@code until} date. Occurrences are computed for the requested window and only
+ * stored as a {@link Session} once someone participates.
+ */
+@Entity
+@Table(name = "SESSION_TEMPLATES")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@Accessors(chain = true)
+@EqualsAndHashCode(of = {"id"})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SessionTemplate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 50)
+    private String name;
+
+    @NotNull
+    @Size(max = 2500)
+    private String description;
+
+    @Min(1)
+    private Integer capacity;
+
+    @ManyToOne
+    @JoinColumn(name = "teacher_id", referencedColumnName = "id", nullable = false)
+    private Teacher teacher;
+
+    @NotNull
+    @Column(name = "start_date", nullable = false)
+    private Date start;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Min(1)
+    @Column(name = "recurrence_interval", nullable = false)
+    @Builder.Default
+    private int interval = 1;
+
+    @Min(1)
+    @Column(name = "occurrence_count")
+    private Integer count;
+
+    @Column(name = "until_date")
+    private Date until;
+
+    @ElementCollection
+    @CollectionTable(name = "SESSION_TEMPLATE_EXCEPTIONS", joinColumns = @JoinColumn(name = "template_id"))
+    @Column(name = "exception_date", nullable = false)
+    @OrderBy
+    private Set<LocalDate> exceptions;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,7 +1,10 @@
 package com.openclassrooms.starterjwt.models;
 
 import lombok.*;
+import com.openclassrooms.starterjwt.config.HibernateCacheConfig;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -13,6 +16,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "TEACHERS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TEACHER_REGION)
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Accessors(chain = true)
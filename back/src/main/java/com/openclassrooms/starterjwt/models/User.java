@@ -46,6 +46,7 @@ public class User {
 
   @NonNull
   @Size(max = 120)
+  @ToString.Exclude
   private String password;
 
   @NonNull
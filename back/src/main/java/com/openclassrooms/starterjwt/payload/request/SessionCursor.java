@@ -0,0 +1,41 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.models.Session;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset position (date, id) of the last session returned in a page.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionCursor {
+  private final Date date;
+
+  private final Long id;
+
+  public static SessionCursor of(Session session) {
+    return new SessionCursor(session.getDate(), session.getId());
+  }
+
+  public static SessionCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(':');
+      return new SessionCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+              Long.valueOf(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new BadRequestException();
+    }
+  }
+
+  public String encode() {
+    String raw = date.getTime() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,37 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.Date;
+
+/**
+ * Fields to change on a session; absent fields are left as they are. {@code version} is the version
+ * the client read, the change is refused if the session was edited since.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPatchRequest {
+  @Size(max = 50)
+  @Pattern(regexp = "(?s).*\\S.*")
+  private String name;
+
+  private Date date;
+
+  private Long teacher_id;
+
+  @Size(max = 2500)
+  private String description;
+
+  @Min(1)
+  private Integer capacity;
+
+  @NotNull
+  private Long version;
+}
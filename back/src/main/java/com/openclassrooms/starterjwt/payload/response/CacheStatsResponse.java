@@ -0,0 +1,24 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.Getter;
+
+@Getter
+public class CacheStatsResponse {
+  private String name;
+  private long size;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private double hitRate;
+
+  public CacheStatsResponse(String name, long size, CacheStats stats) {
+    this.name = name;
+    this.size = size;
+    this.hitCount = stats.hitCount();
+    this.missCount = stats.missCount();
+    this.evictionCount = stats.evictionCount();
+    this.hitRate = stats.hitRate();
+  }
+}
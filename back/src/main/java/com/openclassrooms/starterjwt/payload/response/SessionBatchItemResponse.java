@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a session batch, at the same index as in the request.
+ */
+@Data
+@AllArgsConstructor
+public class SessionBatchItemResponse {
+  private int index;
+  private Long id;
+  private List<String> errors;
+}
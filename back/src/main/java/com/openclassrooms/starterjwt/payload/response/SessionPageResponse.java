@@ -0,0 +1,29 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SessionPageResponse {
+  private List<SessionDto> items;
+
+  private Integer page;
+
+  private int size;
+
+  private String next;
+
+  public static SessionPageResponse of(Slice<Session> slice, List<SessionDto> items, Integer page, int size) {
+    List<Session> content = slice.getContent();
+    String next = slice.hasNext() ? SessionCursor.of(content.get(content.size() - 1)).encode() : null;
+
+    return new SessionPageResponse(items, page, size, next);
+  }
+}
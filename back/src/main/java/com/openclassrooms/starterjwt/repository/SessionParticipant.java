@@ -0,0 +1,10 @@
+package com.openclassrooms.starterjwt.repository;
+
+/**
+ * Projection of a single PARTICIPATE row, read without loading the {@code User} entity.
+ */
+public interface SessionParticipant {
+    Long getSessionId();
+
+    Long getUserId();
+}
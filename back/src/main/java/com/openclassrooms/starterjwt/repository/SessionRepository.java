@@ -1,9 +1,132 @@
 package com.openclassrooms.starterjwt.repository;
 
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.models.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface SessionRepository  extends JpaRepository<Session, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"teacher"})
+    List<Session> findAll();
+
+    @EntityGraph(attributePaths = {"teacher"})
+    Slice<Session> findAllByOrderByDateAscIdAsc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"teacher"})
+    @Query("SELECT s FROM Session s WHERE s.date > :date OR (s.date = :date AND s.id > :id) ORDER BY s.date ASC, s.id ASC")
+    Slice<Session> findAfter(@Param("date") Date date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Both bounds are required, the service binds open-ended ones when the client gives none: an optional
+     * {@code :from IS NULL OR} filter would stop the planner from using the date index.
+     */
+    @EntityGraph(attributePaths = {"teacher"})
+    @Query("SELECT s FROM Session s JOIN s.users u WHERE u.id = :userId "
+            + "AND s.date >= :from AND s.date < :to "
+            + "ORDER BY s.date ASC, s.id ASC")
+    Slice<Session> findByParticipant(@Param("userId") Long userId, @Param("from") Date from, @Param("to") Date to,
+                                     Pageable pageable);
+
+    @EntityGraph(attributePaths = {"teacher"})
+    @Query("SELECT s FROM Session s JOIN s.users u WHERE u.id = :userId "
+            + "AND s.date >= :from AND s.date < :to "
+            + "AND (s.date > :date OR (s.date = :date AND s.id > :id)) "
+            + "ORDER BY s.date ASC, s.id ASC")
+    Slice<Session> findByParticipantAfter(@Param("userId") Long userId, @Param("from") Date from, @Param("to") Date to,
+                                          @Param("date") Date date, @Param("id") Long id, Pageable pageable);
+
+    Optional<Session> findByTemplateIdAndDate(Long templateId, Date date);
+
+    /**
+     * Locks the row until the end of the transaction, so that no seat is reserved while an edit checks
+     * the capacity against the seats taken.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"teacher"})
+    @Query("SELECT s FROM Session s WHERE s.id = :id")
+    Optional<Session> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * Same as {@link #findForUpdateById} for several sessions, locked in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"teacher"})
+    @Query("SELECT s FROM Session s WHERE s.id IN :ids ORDER BY s.id ASC")
+    List<Session> findAllForUpdateById(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s.id AS sessionId, u.id AS userId FROM Session s JOIN s.users u WHERE s.id IN :ids")
+    List<SessionParticipant> findParticipants(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.openclassrooms.starterjwt.dto.SessionSummaryDto(s.id, s.name, s.date, t.id, s.description, SIZE(s.users), s.createdAt, s.updatedAt) "
+            + "FROM Session s LEFT JOIN s.teacher t ORDER BY s.date ASC, s.id ASC")
+    List<SessionSummaryDto> findAllSummaries();
+
+    @Query("SELECT new com.openclassrooms.starterjwt.dto.SessionCalendarDto(s.id, s.name, s.date, t.id, t.firstName, t.lastName, SIZE(s.users), tpl.id) "
+            + "FROM Session s LEFT JOIN s.teacher t LEFT JOIN s.template tpl "
+            + "WHERE s.date >= :from AND s.date < :to "
+            + "ORDER BY s.date ASC, s.id ASC")
+    List<SessionCalendarDto> findCalendar(@Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * Kept apart from {@link #findCalendar}: an optional {@code :teacherId IS NULL OR} filter would stop
+     * the planner from using the (teacher_id, date) index.
+     */
+    @Query("SELECT new com.openclassrooms.starterjwt.dto.SessionCalendarDto(s.id, s.name, s.date, t.id, t.firstName, t.lastName, SIZE(s.users), tpl.id) "
+            + "FROM Session s JOIN s.teacher t LEFT JOIN s.template tpl "
+            + "WHERE t.id = :teacherId AND s.date >= :from AND s.date < :to "
+            + "ORDER BY s.date ASC, s.id ASC")
+    List<SessionCalendarDto> findCalendarByTeacher(@Param("from") Date from, @Param("to") Date to,
+                                                   @Param("teacherId") Long teacherId);
+
+    @Modifying
+    @Query(value = "INSERT INTO PARTICIPATE (session_id, user_id) "
+            + "SELECT s.id, u.id FROM SESSIONS s, USERS u WHERE s.id = :sessionId AND u.id = :userId "
+            + "AND NOT EXISTS (SELECT 1 FROM PARTICIPATE p WHERE p.session_id = :sessionId AND p.user_id = :userId)",
+            nativeQuery = true)
+    int addParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM PARTICIPATE WHERE session_id = :sessionId AND user_id = :userId", nativeQuery = true)
+    int removeParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Query(value = "SELECT COUNT(*) FROM PARTICIPATE WHERE session_id = :sessionId AND user_id = :userId", nativeQuery = true)
+    long countParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Session s SET s.seatsTaken = s.seatsTaken + 1, s.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE s.id = :id AND (s.capacity IS NULL OR s.seatsTaken < s.capacity)")
+    int reserveSeat(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Session s SET s.seatsTaken = s.seatsTaken - 1, s.updatedAt = CURRENT_TIMESTAMP WHERE s.id = :id AND s.seatsTaken > 0")
+    int releaseSeat(@Param("id") Long id);
+
+    /**
+     * Sets the given fields in place, a null parameter keeping the stored value. No row is updated
+     * when the version moved on or when the capacity would drop below the seats already taken.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.name = COALESCE(:name, s.name), s.date = COALESCE(:date, s.date), "
+            + "s.teacher.id = COALESCE(:teacherId, s.teacher.id), s.description = COALESCE(:description, s.description), "
+            + "s.capacity = COALESCE(:capacity, s.capacity), s.version = s.version + 1, s.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE s.id = :id AND s.version = :version AND (:capacity IS NULL OR :capacity >= s.seatsTaken)")
+    int patch(@Param("id") Long id, @Param("version") Long version, @Param("name") String name, @Param("date") Date date,
+              @Param("teacherId") Long teacherId, @Param("description") String description, @Param("capacity") Integer capacity);
 }
@@ -0,0 +1,20 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface SessionTemplateRepository extends JpaRepository<SessionTemplate, Long> {
+    @EntityGraph(attributePaths = {"teacher", "exceptions"})
+    @Query("SELECT DISTINCT t FROM SessionTemplate t "
+            + "WHERE t.start < :to AND (t.until IS NULL OR t.until >= :from) "
+            + "AND (:teacherId IS NULL OR t.teacher.id = :teacherId)")
+    List<SessionTemplate> findActive(@Param("from") Date from, @Param("to") Date to, @Param("teacherId") Long teacherId);
+}
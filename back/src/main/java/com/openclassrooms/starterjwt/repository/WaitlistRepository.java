@@ -0,0 +1,32 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+    Optional<WaitlistEntry> findFirstBySessionIdOrderByIdAsc(Long sessionId);
+
+    long countBySessionId(Long sessionId);
+
+    @Modifying
+    @Query(value = "INSERT INTO WAITLIST (session_id, user_id, created_at) "
+            + "SELECT s.id, u.id, CURRENT_TIMESTAMP FROM SESSIONS s, USERS u WHERE s.id = :sessionId AND u.id = :userId "
+            + "AND NOT EXISTS (SELECT 1 FROM WAITLIST w WHERE w.session_id = :sessionId AND w.user_id = :userId)",
+            nativeQuery = true)
+    int addEntry(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.sessionId = :sessionId AND w.userId = :userId")
+    int removeEntry(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.sessionId = :sessionId")
+    int removeAllEntries(@Param("sessionId") Long sessionId);
+}
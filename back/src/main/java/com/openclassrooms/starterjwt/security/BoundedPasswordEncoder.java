@@ -0,0 +1,107 @@
+package com.openclassrooms.starterjwt.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
+
+/**
+ * Runs the delegate encoder on a dedicated, size-bounded pool so that password hashing cannot
+ * take over the servlet threads. Once the pool and its queue are full, calls are shed with a
+ * {@link ServiceUnavailableException} instead of waiting.
+ *
+ * <p>The hashing time is recorded per operation as {@code password.hashing}, excluding the time spent
+ * in the queue, next to the pool occupancy gauges and the count of shed calls.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final long retryAfterSeconds;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueSize, long retryAfterSeconds,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.encodeTimer = meterRegistry.timer("password.hashing", "operation", "encode");
+    this.matchesTimer = meterRegistry.timer("password.hashing", "operation", "matches");
+    this.rejected = meterRegistry.counter("password.hashing.rejected");
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    Gauge.builder("password.hashing.queued", executor, e -> e.getQueue().size()).register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  public int getQueueSize() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private <T> T submit(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceUnavailableException(retryAfterSeconds);
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException(retryAfterSeconds);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
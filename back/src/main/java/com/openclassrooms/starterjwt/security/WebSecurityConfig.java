@@ -1,6 +1,10 @@
 package com.openclassrooms.starterjwt.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +22,8 @@ import com.openclassrooms.starterjwt.security.jwt.AuthEntryPointJwt;
 import com.openclassrooms.starterjwt.security.jwt.AuthTokenFilter;
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(
@@ -31,6 +37,18 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
   @Autowired
   private AuthEntryPointJwt unauthorizedHandler;
 
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${oc.app.passwordHashingThreads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+  private int passwordHashingThreads;
+
+  @Value("${oc.app.passwordHashingQueueSize:64}")
+  private int passwordHashingQueueSize;
+
+  @Value("${oc.app.passwordHashingRetryAfterSeconds:1}")
+  private long passwordHashingRetryAfterSeconds;
+
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter() {
     return new AuthTokenFilter();
@@ -49,7 +67,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(),
+        passwordHashingThreads, passwordHashingQueueSize, passwordHashingRetryAfterSeconds, meterRegistry);
   }
 
   @Override
@@ -58,6 +77,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
       .exceptionHandling().authenticationEntryPoint(unauthorizedHandler).and()
       .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
       .authorizeRequests().antMatchers("/api/auth/**").permitAll()
+      // only served on the management port, which is kept off the public network
+      .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
       .antMatchers("/api/**").authenticated()
       .anyRequest().authenticated();
 
@@ -19,6 +19,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
@@ -33,10 +37,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
+      Claims claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+      if (claims != null) {
+        UserDetails userDetails = jwtUtils.getUserDetailsFromJwtClaims(claims);
+        if (userDetails == null) {
+          userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -47,7 +54,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         SecurityContextHolder.getContext().setAuthentication(authentication);
       }
     } catch (Exception e) {
-      logger.error("Cannot set user authentication: {}", e);
+      logger.warn("Cannot set user authentication {}", kv("reason", e.toString()));
+      if (logger.isDebugEnabled()) {
+        logger.debug("Cannot set user authentication", e);
+      }
     }
 
     filterChain.doFilter(request, response);
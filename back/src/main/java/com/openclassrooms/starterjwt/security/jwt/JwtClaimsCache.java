@@ -0,0 +1,114 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Size-bounded cache of already verified tokens, keyed by their signature segment.
+ * Each entry expires together with the token it was built from.
+ */
+@Component
+public class JwtClaimsCache {
+  private final Cache<String, VerifiedToken> cache;
+
+  @Autowired
+  public JwtClaimsCache(@Value("${oc.app.jwtCacheSize:10000}") long maximumSize) {
+    this(maximumSize, ForkJoinPool.commonPool());
+  }
+
+  JwtClaimsCache(long maximumSize, Executor executor) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .executor(executor)
+        .expireAfter(new UntilTokenExpiry())
+        .recordStats()
+        .build();
+  }
+
+  public Claims get(String token) {
+    String signature = signatureOf(token);
+    if (signature == null) {
+      return null;
+    }
+
+    VerifiedToken verified = cache.getIfPresent(signature);
+    if (verified == null || !verified.token.equals(token) || verified.expiresAt <= System.currentTimeMillis()) {
+      return null;
+    }
+
+    return verified.claims;
+  }
+
+  public void put(String token, Claims claims) {
+    String signature = signatureOf(token);
+    Date expiration = claims.getExpiration();
+    if (signature == null || expiration == null) {
+      return;
+    }
+
+    cache.put(signature, new VerifiedToken(token, claims, expiration.getTime()));
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  private static String signatureOf(String token) {
+    if (token == null) {
+      return null;
+    }
+
+    int separator = token.lastIndexOf('.');
+    if (separator < 0 || separator == token.length() - 1) {
+      return null;
+    }
+
+    return token.substring(separator + 1);
+  }
+
+  private static final class VerifiedToken {
+    private final String token;
+    private final Claims claims;
+    private final long expiresAt;
+
+    private VerifiedToken(String token, Claims claims, long expiresAt) {
+      this.token = token;
+      this.claims = claims;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+    @Override
+    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt - System.currentTimeMillis()));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.util.Date;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -11,6 +12,8 @@ import org.springframework.stereotype.Component;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 
 import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
 public class JwtUtils {
@@ -22,16 +25,34 @@ public class JwtUtils {
   @Value("${oc.app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  @Autowired
+  private JwtClaimsCache claimsCache;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  static final String CLAIM_ID = "id";
+  static final String CLAIM_FIRST_NAME = "firstName";
+  static final String CLAIM_LAST_NAME = "lastName";
+  static final String CLAIM_ADMIN = "admin";
+
   public String generateJwtToken(Authentication authentication) {
 
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
-    return Jwts.builder()
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String token = Jwts.builder()
         .setSubject((userPrincipal.getUsername()))
+        .claim(CLAIM_ID, userPrincipal.getId())
+        .claim(CLAIM_FIRST_NAME, userPrincipal.getFirstName())
+        .claim(CLAIM_LAST_NAME, userPrincipal.getLastName())
+        .claim(CLAIM_ADMIN, Boolean.TRUE.equals(userPrincipal.getAdmin()))
         .setIssuedAt(new Date())
         .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
         .signWith(SignatureAlgorithm.HS512, jwtSecret)
         .compact();
+    sample.stop(meterRegistry.timer("jwt.issue"));
+    return token;
   }
 
   public String getUserNameFromJwtToken(String token) {
@@ -39,21 +60,62 @@ public class JwtUtils {
   }
 
   public boolean validateJwtToken(String authToken) {
+    return parseJwtToken(authToken) != null;
+  }
+
+  /**
+   * Verifies the token once and returns its claims, or null when it cannot be trusted.
+   * Tokens verified earlier are served from the claims cache until they expire, so only
+   * cache misses are timed as verifications.
+   */
+  public Claims parseJwtToken(String authToken) {
+    Claims cached = claimsCache.get(authToken);
+    if (cached != null) {
+      return cached;
+    }
+
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "invalid";
     try {
-      Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-      return true;
+      Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
+      claimsCache.put(authToken, claims);
+      outcome = "valid";
+      return claims;
     } catch (SignatureException e) {
-      logger.error("Invalid JWT signature: {}", e.getMessage());
+      // anyone can send a bad token, they are counted by the jwt.verify timer rather than logged one by one
+      logger.debug("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
-      logger.error("Invalid JWT token: {}", e.getMessage());
+      logger.debug("Invalid JWT token: {}", e.getMessage());
     } catch (ExpiredJwtException e) {
-      logger.error("JWT token is expired: {}", e.getMessage());
+      logger.debug("JWT token is expired: {}", e.getMessage());
     } catch (UnsupportedJwtException e) {
-      logger.error("JWT token is unsupported: {}", e.getMessage());
+      logger.debug("JWT token is unsupported: {}", e.getMessage());
     } catch (IllegalArgumentException e) {
-      logger.error("JWT claims string is empty: {}", e.getMessage());
+      logger.debug("JWT claims string is empty: {}", e.getMessage());
+    } finally {
+      sample.stop(meterRegistry.timer("jwt.verify", "outcome", outcome));
+    }
+
+    return null;
+  }
+
+  /**
+   * Builds the principal from the claims embedded at login, or returns null for tokens
+   * issued before those claims existed.
+   */
+  public UserDetailsImpl getUserDetailsFromJwtClaims(Claims claims) {
+    Long id = claims.get(CLAIM_ID, Long.class);
+    if (id == null) {
+      return null;
     }
 
-    return false;
+    return UserDetailsImpl
+            .builder()
+            .id(id)
+            .username(claims.getSubject())
+            .firstName(claims.get(CLAIM_FIRST_NAME, String.class))
+            .lastName(claims.get(CLAIM_LAST_NAME, String.class))
+            .admin(Boolean.TRUE.equals(claims.get(CLAIM_ADMIN, Boolean.class)))
+            .build();
   }
 }
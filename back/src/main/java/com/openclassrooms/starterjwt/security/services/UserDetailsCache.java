@@ -0,0 +1,44 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Size and time bounded cache of loaded user details, keyed by email.
+ */
+@Component
+public class UserDetailsCache {
+  private final Cache<String, UserDetailsImpl> cache;
+
+  public UserDetailsCache(@Value("${oc.app.userCacheSize:10000}") long maximumSize,
+      @Value("${oc.app.userCacheTtlMs:600000}") long ttlMs) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofMillis(ttlMs))
+        .recordStats()
+        .build();
+  }
+
+  public UserDetailsImpl get(String email, Function<String, UserDetailsImpl> loader) {
+    return cache.get(email, loader);
+  }
+
+  public void evict(String email) {
+    cache.invalidate(email);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.estimatedSize();
+  }
+}
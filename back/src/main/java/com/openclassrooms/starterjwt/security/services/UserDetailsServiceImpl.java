@@ -4,7 +4,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
@@ -13,13 +12,19 @@ import com.openclassrooms.starterjwt.repository.UserRepository;
 public class UserDetailsServiceImpl implements UserDetailsService {
   UserRepository userRepository;
 
-  UserDetailsServiceImpl(UserRepository userRepository) {
+  UserDetailsCache userDetailsCache;
+
+  UserDetailsServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache) {
     this.userRepository = userRepository;
+    this.userDetailsCache = userDetailsCache;
   }
 
   @Override
-  @Transactional
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    return userDetailsCache.get(username, this::loadUser);
+  }
+
+  UserDetailsImpl loadUser(String username) {
     User user = userRepository.findByEmail(username)
         .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + username));
 
@@ -29,6 +34,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             .username(user.getEmail())
             .lastName(user.getLastName())
             .firstName(user.getFirstName())
+            .admin(user.isAdmin())
             .password(user.getPassword())
             .build();
   }
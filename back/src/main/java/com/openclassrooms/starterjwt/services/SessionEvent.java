@@ -0,0 +1,20 @@
+package com.openclassrooms.starterjwt.services;
+
+import lombok.Value;
+
+/**
+ * Change of a session, published by {@link SessionService} and relayed to the event stream once the
+ * surrounding transaction has committed. {@code userId} is only set for participation events.
+ */
+@Value
+public class SessionEvent {
+    SessionEventType type;
+
+    Long sessionId;
+
+    Long userId;
+
+    public static SessionEvent of(SessionEventType type, Long sessionId) {
+        return new SessionEvent(type, sessionId, null);
+    }
+}
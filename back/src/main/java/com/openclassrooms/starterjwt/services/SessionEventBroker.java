@@ -0,0 +1,263 @@
+package com.openclassrooms.starterjwt.services;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relays session events to the connected event stream clients.
+ *
+ * <p>Every event gets an increasing id and is kept in a ring buffer of the last {@code replaySize}
+ * events, so a client reconnecting with {@code Last-Event-ID} receives what it missed. A client that
+ * fell behind the ring buffer is sent a {@code reset} event and has to reload its sessions.
+ *
+ * <p>Publishers never write to a client: events are queued in a bounded buffer per client and sent
+ * by a dispatch task of that client, so a blocked write only holds back its own client. A client whose
+ * buffer overflows, or whose write has been blocked for {@code writeTimeoutMs}, is disconnected and
+ * resumes from the ring buffer when it reconnects, so one slow connection cannot hold back the others
+ * or grow the heap.
+ */
+@Service
+public class SessionEventBroker implements DisposableBean {
+    static final String RESET_EVENT = "reset";
+
+    private static final Entry HEARTBEAT = new Entry(0, null);
+
+    private static final Entry RESET = new Entry(0, null);
+
+    private final int replaySize;
+
+    private final int clientBufferSize;
+
+    private final long timeoutMs;
+
+    private final long writeTimeoutMs;
+
+    private final Executor dispatcher;
+
+    private final ScheduledExecutorService heartbeat;
+
+    private final Deque<Entry> replay = new ArrayDeque<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private long lastId;
+
+    @Autowired
+    public SessionEventBroker(@Value("${oc.app.sseReplaySize:1000}") int replaySize,
+                              @Value("${oc.app.sseClientBufferSize:256}") int clientBufferSize,
+                              @Value("${oc.app.sseHeartbeatMs:15000}") long heartbeatMs,
+                              @Value("${oc.app.sseTimeoutMs:1800000}") long timeoutMs,
+                              @Value("${oc.app.sseWriteTimeoutMs:10000}") long writeTimeoutMs) {
+        // at most one dispatch task per client at a time, so at most one thread per client
+        this(replaySize, clientBufferSize, heartbeatMs, timeoutMs, writeTimeoutMs, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "session-events");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    SessionEventBroker(int replaySize, int clientBufferSize, long heartbeatMs, long timeoutMs, long writeTimeoutMs,
+                       Executor dispatcher) {
+        this.replaySize = replaySize;
+        this.clientBufferSize = clientBufferSize;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.dispatcher = dispatcher;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        this.heartbeat.scheduleAtFixedRate(() -> disconnectStalled(System.nanoTime()),
+                writeTimeoutMs, writeTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream for a new client. The missed events are queued before the client is registered,
+     * under the same lock as {@link #publish}, so they come out in order and without gap or duplicate.
+     * The client buffer is enlarged by the missed events, so that any resume the ring buffer covers fits.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber;
+
+        synchronized (this) {
+            List<Entry> missed = new ArrayList<>();
+            if (lastEventId != null && lastEventId != lastId) {
+                Entry oldest = replay.peekFirst();
+                // ids start over on restart, so an id ahead of ours is as stale as one out of the ring buffer
+                if (lastEventId < 0 || lastEventId > lastId || oldest == null || oldest.id > lastEventId + 1) {
+                    missed.add(RESET);
+                } else {
+                    replay.stream().filter(entry -> entry.id > lastEventId).forEach(missed::add);
+                }
+            }
+            subscriber = new Subscriber(emitter, clientBufferSize + missed.size());
+            subscriber.queue.addAll(missed);
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Events published inside a transaction are relayed after it commits and dropped if it rolls back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(SessionEvent event) {
+        synchronized (this) {
+            Entry entry = new Entry(++lastId, event);
+            replay.addLast(entry);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(entry));
+        }
+
+        subscribers.forEach(this::schedule);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void sendHeartbeat() {
+        subscribers.forEach(subscriber -> {
+            subscriber.offer(HEARTBEAT);
+            schedule(subscriber);
+        });
+    }
+
+    /**
+     * Stops relaying events to the clients whose current write started more than {@code writeTimeoutMs}
+     * ago. The emitter is locked by that write, so the dispatch task completes it once the write returns
+     * or fails on the container's own write timeout.
+     */
+    void disconnectStalled(long now) {
+        subscribers.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs)) {
+                subscriber.disconnecting = true;
+                subscribers.remove(subscriber);
+            }
+        });
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Entry entry;
+            while (!subscriber.disconnecting && (entry = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(toSseEvent(entry));
+                subscriber.sendingSince = 0;
+            }
+
+            if (subscriber.disconnecting) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the connection is gone; the container reports it through the emitter callbacks
+            subscribers.remove(subscriber);
+        } finally {
+            subscriber.sendingSince = 0;
+            subscriber.scheduled.set(false);
+        }
+
+        if ((!subscriber.queue.isEmpty() || subscriber.disconnecting) && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(Entry entry) {
+        if (entry == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        if (entry == RESET) {
+            return SseEmitter.event().name(RESET_EVENT).data("");
+        }
+        return SseEmitter.event()
+                .id(String.valueOf(entry.id))
+                .name(entry.event.getType().name())
+                .data(entry.event, MediaType.APPLICATION_JSON);
+    }
+
+    private static final class Entry {
+        private final long id;
+
+        private final SessionEvent event;
+
+        private Entry(long id, SessionEvent event) {
+            this.id = id;
+            this.event = event;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+
+        private final Queue<Entry> queue;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Set when the buffer overflows or a write stalls; the dispatch task then ends the stream.
+         */
+        private volatile boolean disconnecting;
+
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(Entry entry) {
+            if (!queue.offer(entry)) {
+                disconnecting = true;
+            }
+        }
+    }
+}
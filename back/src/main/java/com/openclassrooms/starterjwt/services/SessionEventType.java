@@ -0,0 +1,9 @@
+package com.openclassrooms.starterjwt.services;
+
+public enum SessionEventType {
+    SESSION_CREATED,
+    SESSION_UPDATED,
+    SESSION_DELETED,
+    PARTICIPANT_JOINED,
+    PARTICIPANT_LEFT
+}
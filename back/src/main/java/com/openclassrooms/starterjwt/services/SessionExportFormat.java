@@ -0,0 +1,33 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum SessionExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    SessionExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static SessionExportFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException();
+        }
+    }
+}
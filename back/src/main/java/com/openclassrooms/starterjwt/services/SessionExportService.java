@@ -0,0 +1,152 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.openclassrooms.starterjwt.dto.SessionAttendanceDto;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes one row per session attendee, or one row with empty user columns for a session without
+ * attendees. Rows are read from a forward-only cursor and written as they arrive, so memory use does
+ * not depend on the number of rows.
+ *
+ * <p>Connector/J only streams a result set when the fetch size is {@link Integer#MIN_VALUE}, and buffers
+ * it whole otherwise. That value is set on this query alone, other drivers get a plain batch size.
+ */
+@Service
+public class SessionExportService {
+    static final String CSV_HEADER = "session_id,session_name,session_date,teacher_id,user_id,user_email,user_last_name,user_first_name";
+
+    static final String ATTENDANCE_QUERY = "SELECT new com.openclassrooms.starterjwt.dto.SessionAttendanceDto("
+            + "s.id, s.name, s.date, t.id, u.id, u.email, u.lastName, u.firstName) "
+            + "FROM Session s LEFT JOIN s.teacher t LEFT JOIN s.users u ORDER BY s.id ASC, u.id ASC";
+
+    static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final int fetchSize;
+
+    private final long timeoutMs;
+
+    public SessionExportService(EntityManager entityManager, ObjectMapper objectMapper,
+                                @Value("${oc.app.exportTimeoutMs:600000}") long timeoutMs) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.fetchSize = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+
+    /**
+     * Time allowed to write a whole export, longer than the default timeout of the other async requests.
+     */
+    public long getTimeoutMs() {
+        return this.timeoutMs;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(SessionExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        long count;
+        try (Stream<SessionAttendanceDto> rows = streamAttendance()) {
+            count = format == SessionExportFormat.CSV ? writeCsv(rows.iterator(), writer) : writeNdjson(rows.iterator(), writer);
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private Stream<SessionAttendanceDto> streamAttendance() {
+        return this.entityManager.createQuery(ATTENDANCE_QUERY, SessionAttendanceDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, this.fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    private long writeNdjson(Iterator<SessionAttendanceDto> rows, Writer writer) throws IOException {
+        SequenceWriter json = this.objectMapper.writerFor(SessionAttendanceDto.class)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+
+        long count = 0;
+        while (rows.hasNext()) {
+            json.write(rows.next());
+            count++;
+        }
+
+        json.flush();
+        if (count > 0) {
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<SessionAttendanceDto> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        while (rows.hasNext()) {
+            SessionAttendanceDto row = rows.next();
+            writer.write(String.valueOf(row.getSessionId()));
+            writer.write(',');
+            writeCsvField(writer, row.getSessionName());
+            writer.write(',');
+            writeCsvField(writer, row.getSessionDate());
+            writer.write(',');
+            writeCsvField(writer, row.getTeacherId());
+            writer.write(',');
+            writeCsvField(writer, row.getUserId());
+            writer.write(',');
+            writeCsvField(writer, row.getUserEmail());
+            writer.write(',');
+            writeCsvField(writer, row.getUserLastName());
+            writer.write(',');
+            writeCsvField(writer, row.getUserFirstName());
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        String text = value instanceof Date ? ((Date) value).toInstant().toString() : value.toString();
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            // names and emails are user input: keep spreadsheets from reading them as formulas
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,31 @@
+package com.openclassrooms.starterjwt.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts joins and leaves from the session events, so only committed changes are counted. Users
+ * put on the waitlist show up as 202 responses of the participate endpoint in the request timers.
+ */
+@Component
+public class SessionParticipationMetrics {
+    private final Counter joined;
+
+    private final Counter left;
+
+    public SessionParticipationMetrics(MeterRegistry meterRegistry) {
+        this.joined = meterRegistry.counter("session.participation", "change", "joined");
+        this.left = meterRegistry.counter("session.participation", "change", "left");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void count(SessionEvent event) {
+        if (event.getType() == SessionEventType.PARTICIPANT_JOINED) {
+            this.joined.increment();
+        } else if (event.getType() == SessionEventType.PARTICIPANT_LEFT) {
+            this.left.increment();
+        }
+    }
+}
@@ -1,78 +1,446 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
-import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionPatchRequest;
+import com.openclassrooms.starterjwt.repository.SessionParticipant;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class SessionService {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    public static final long MAX_CALENDAR_RANGE_MS = 366L * 24 * 60 * 60 * 1000;
+
+    /** Upper bound of the participant queries when the client gives none, 9999-12-31. */
+    static final long LATEST_DATE_MS = 253402214400000L;
+
+    private static final Comparator<SessionCalendarDto> CALENDAR_ORDER = Comparator
+            .comparing((SessionCalendarDto row) -> row.getDate().getTime())
+            .thenComparing(SessionCalendarDto::getId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SessionCalendarDto::getTemplateId, Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final SessionRepository sessionRepository;
 
     private final UserRepository userRepository;
 
-    public SessionService(SessionRepository sessionRepository, UserRepository userRepository) {
+    private final WaitlistRepository waitlistRepository;
+
+    private final SessionTemplateService sessionTemplateService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SessionService(SessionRepository sessionRepository, UserRepository userRepository,
+                          WaitlistRepository waitlistRepository, SessionTemplateService sessionTemplateService,
+                          ApplicationEventPublisher eventPublisher) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.sessionTemplateService = sessionTemplateService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Session create(Session session) {
-        return this.sessionRepository.save(session);
+        Session saved = save(countSeats(session));
+        this.eventPublisher.publishEvent(SessionEvent.of(SessionEventType.SESSION_CREATED, saved.getId()));
+        return saved;
     }
 
+    /**
+     * Deleting a stored occurrence of a template cancels it: its day becomes an exception of the template.
+     */
+    @Transactional
     public void delete(Long id) {
+        this.sessionRepository.findById(id)
+                .filter(session -> session.getTemplate() != null)
+                .ifPresent(session -> this.sessionTemplateService.excludeOccurrence(session.getTemplate().getId(), session.getDate()));
+        this.waitlistRepository.removeAllEntries(id);
         this.sessionRepository.deleteById(id);
+        this.eventPublisher.publishEvent(SessionEvent.of(SessionEventType.SESSION_DELETED, id));
     }
 
     public List<Session> findAll() {
         return this.sessionRepository.findAll();
     }
 
+    public List<SessionSummaryDto> findAllSummaries() {
+        return this.sessionRepository.findAllSummaries();
+    }
+
+    public List<SessionCalendarDto> findCalendar(Date from, Date to, Long teacherId) {
+        if (!to.after(from) || to.getTime() - from.getTime() > MAX_CALENDAR_RANGE_MS) {
+            throw new BadRequestException();
+        }
+
+        List<SessionCalendarDto> sessions = teacherId == null
+                ? this.sessionRepository.findCalendar(from, to)
+                : this.sessionRepository.findCalendarByTeacher(from, to, teacherId);
+        List<SessionCalendarDto> occurrences = this.sessionTemplateService.findOccurrences(from, to, teacherId);
+        if (occurrences.isEmpty()) {
+            return sessions;
+        }
+
+        // stored occurrences are already listed with their participants
+        Set<String> stored = sessions.stream()
+                .filter(session -> session.getTemplateId() != null)
+                .map(session -> session.getTemplateId() + "@" + session.getDate().getTime())
+                .collect(Collectors.toSet());
+
+        List<SessionCalendarDto> calendar = new ArrayList<>(sessions);
+        occurrences.stream()
+                .filter(occurrence -> !stored.contains(occurrence.getTemplateId() + "@" + occurrence.getDate().getTime()))
+                .forEach(calendar::add);
+        calendar.sort(CALENDAR_ORDER);
+        return calendar;
+    }
+
+    public Map<Long, List<Long>> findParticipantIds(List<Session> sessions) {
+        if (sessions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> ids = sessions.stream().map(Session::getId).collect(Collectors.toList());
+
+        return this.sessionRepository.findParticipants(ids).stream()
+                .collect(Collectors.groupingBy(SessionParticipant::getSessionId,
+                        Collectors.mapping(SessionParticipant::getUserId, Collectors.toList())));
+    }
+
+    public Slice<Session> findPage(int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException();
+        }
+
+        return this.sessionRepository.findAllByOrderByDateAscIdAsc(PageRequest.of(page, checkPageSize(size)));
+    }
+
+    public Slice<Session> findAfter(SessionCursor cursor, int size) {
+        PageRequest pageRequest = PageRequest.of(0, checkPageSize(size));
+        if (cursor == null) {
+            return this.sessionRepository.findAllByOrderByDateAscIdAsc(pageRequest);
+        }
+
+        return this.sessionRepository.findAfter(cursor.getDate(), cursor.getId(), pageRequest);
+    }
+
+    public Slice<Session> findPageByParticipant(Long userId, Date from, Date to, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException();
+        }
+
+        return this.sessionRepository.findByParticipant(userId, orEarliest(from), orLatest(to),
+                PageRequest.of(page, checkPageSize(size)));
+    }
+
+    public Slice<Session> findByParticipantAfter(Long userId, Date from, Date to, SessionCursor cursor, int size) {
+        PageRequest pageRequest = PageRequest.of(0, checkPageSize(size));
+        if (cursor == null) {
+            return this.sessionRepository.findByParticipant(userId, orEarliest(from), orLatest(to), pageRequest);
+        }
+
+        return this.sessionRepository.findByParticipantAfter(userId, orEarliest(from), orLatest(to),
+                cursor.getDate(), cursor.getId(), pageRequest);
+    }
+
+    private static Date orEarliest(Date from) {
+        return from != null ? from : new Date(0);
+    }
+
+    private static Date orLatest(Date to) {
+        return to != null ? to : new Date(LATEST_DATE_MS);
+    }
+
     public Session getById(Long id) {
         return this.sessionRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Replaces the session fields. Participants and seats taken are only changed by joining and leaving,
+     * so a join made since the client read the session is kept. A client that sends no version keeps the
+     * former last-write-wins behavior, otherwise the update is refused with a conflict when the session
+     * was edited since it was read.
+     */
+    @Transactional
     public Session update(Long id, Session session) {
-        session.setId(id);
-        return this.sessionRepository.save(session);
+        Session stored = this.sessionRepository.findForUpdateById(id).orElseThrow(NotFoundException::new);
+        if (session.getVersion() != null && !session.getVersion().equals(stored.getVersion())) {
+            throw new ConflictException();
+        }
+
+        int seatsAdded = replaceFields(stored, session);
+        flush();
+        promoteFromWaitlist(id, seatsAdded);
+        this.eventPublisher.publishEvent(SessionEvent.of(SessionEventType.SESSION_UPDATED, id));
+        return stored;
     }
 
-    public void participate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        User user = this.userRepository.findById(userId).orElse(null);
-        if (session == null || user == null) {
+    /**
+     * Creates the sessions without id and updates the others in one transaction. The sessions to update
+     * are loaded up front with a single query and updated like {@link #update}, so the inserts and
+     * updates are sent as JDBC batches at flush.
+     */
+    @Transactional
+    public List<Session> saveAll(List<Session> sessions) {
+        Set<Long> ids = sessions.stream().map(Session::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Session> stored = ids.isEmpty() ? Collections.emptyMap() : this.sessionRepository.findAllForUpdateById(ids).stream()
+                .collect(Collectors.toMap(Session::getId, Function.identity()));
+        if (stored.size() != ids.size()) {
             throw new NotFoundException();
         }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(alreadyParticipate) {
+        List<Session> saved = new ArrayList<>(sessions.size());
+        Map<Long, Integer> seatsAdded = new HashMap<>();
+        List<Session> created = new ArrayList<>();
+        for (Session session : sessions) {
+            if (session.getId() == null) {
+                created.add(countSeats(session));
+                saved.add(session);
+                continue;
+            }
+            Session existing = stored.get(session.getId());
+            if (session.getVersion() != null && !session.getVersion().equals(existing.getVersion())) {
+                throw new ConflictException();
+            }
+            seatsAdded.put(existing.getId(), replaceFields(existing, session));
+            saved.add(existing);
+        }
+
+        this.sessionRepository.saveAll(created);
+        flush();
+        seatsAdded.forEach(this::promoteFromWaitlist);
+        saved.forEach(session -> this.eventPublisher.publishEvent(SessionEvent.of(ids.contains(session.getId())
+                ? SessionEventType.SESSION_UPDATED : SessionEventType.SESSION_CREATED, session.getId())));
+        return saved;
+    }
+
+    /**
+     * Changes the fields set in the request with a single update of the session row. Participants are
+     * left untouched, so joins made meanwhile are kept; seats added by a higher capacity are handed to
+     * waitlisted users.
+     */
+    @Transactional
+    public Session patch(Long id, SessionPatchRequest patch) {
+        // the row is locked and read first when the update may move an occurrence or add seats
+        Session stored = patch.getDate() == null && patch.getCapacity() == null ? null
+                : this.sessionRepository.findForUpdateById(id).orElse(null);
+        Long templateId = null;
+        Date formerDate = null;
+        int seatsAdded = 0;
+        if (stored != null) {
+            // a stored occurrence of a template moved to another date leaves an exception at its former date
+            if (patch.getDate() != null && stored.getTemplate() != null
+                    && stored.getDate().getTime() != patch.getDate().getTime()) {
+                templateId = stored.getTemplate().getId();
+                formerDate = stored.getDate();
+            }
+            if (patch.getCapacity() != null) {
+                seatsAdded = seatsAdded(stored.getCapacity(), patch.getCapacity());
+            }
+        }
+
+        int updated;
+        try {
+            updated = this.sessionRepository.patch(id, patch.getVersion(), patch.getName(), patch.getDate(),
+                    patch.getTeacher_id(), patch.getDescription(), patch.getCapacity());
+        } catch (DataIntegrityViolationException e) {
             throw new BadRequestException();
         }
 
-        session.getUsers().add(user);
+        if (updated == 0) {
+            Session session = this.sessionRepository.findById(id).orElseThrow(NotFoundException::new);
+            if (!session.getVersion().equals(patch.getVersion())) {
+                throw new ConflictException();
+            }
+            // the capacity would be below the seats taken
+            throw new BadRequestException();
+        }
 
-        this.sessionRepository.save(session);
+        if (templateId != null) {
+            this.sessionTemplateService.excludeOccurrence(templateId, formerDate);
+        }
+        promoteFromWaitlist(id, seatsAdded);
+        this.eventPublisher.publishEvent(SessionEvent.of(SessionEventType.SESSION_UPDATED, id));
+        return this.sessionRepository.findById(id).orElseThrow(NotFoundException::new);
     }
 
-    public void noLongerParticipate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        if (session == null) {
+    private Session save(Session session) {
+        try {
+            return this.sessionRepository.save(session);
+        } catch (DataIntegrityViolationException | JpaObjectRetrievalFailureException e) {
+            // the teacher is only referenced by id, so an unknown one is reported by the foreign key,
+            // or by Hibernate when the reference has to be loaded
+            throw new BadRequestException();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException();
+        }
+    }
+
+    private void flush() {
+        try {
+            this.sessionRepository.flush();
+        } catch (DataIntegrityViolationException | JpaObjectRetrievalFailureException e) {
+            throw new BadRequestException();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException();
+        }
+    }
+
+    /**
+     * Reserves a seat with a conditional update on the session row, which also serializes concurrent
+     * joins of the same session. When the session is full the user is appended to its waitlist instead.
+     */
+    @Transactional
+    public ParticipationStatus participate(Long id, Long userId) {
+        if (this.sessionRepository.reserveSeat(id) == 1) {
+            if (this.sessionRepository.addParticipant(id, userId) == 0) {
+                throw participationFailure(id, userId);
+            }
+            this.eventPublisher.publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, id, userId));
+            return ParticipationStatus.PARTICIPATING;
+        }
+
+        if (!this.sessionRepository.existsById(id)) {
             throw new NotFoundException();
         }
+        if (this.sessionRepository.countParticipant(id, userId) > 0) {
+            throw new BadRequestException();
+        }
+
+        try {
+            if (this.waitlistRepository.addEntry(id, userId) == 0) {
+                throw participationFailure(id, userId);
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException();
+        }
+        return ParticipationStatus.WAITLISTED;
+    }
+
+    /**
+     * Frees the user's seat and hands it to the oldest waitlisted user, or simply leaves the waitlist.
+     */
+    @Transactional
+    public void noLongerParticipate(Long id, Long userId) {
+        if (this.sessionRepository.removeParticipant(id, userId) == 1) {
+            this.sessionRepository.releaseSeat(id);
+            this.eventPublisher.publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_LEFT, id, userId));
+            promoteFromWaitlist(id, 1);
+            return;
+        }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(!alreadyParticipate) {
+        if (this.waitlistRepository.removeEntry(id, userId) == 0) {
+            if (!this.sessionRepository.existsById(id)) {
+                throw new NotFoundException();
+            }
             throw new BadRequestException();
         }
+    }
+
+    /**
+     * Hands up to {@code seats} freed seats to the oldest waitlisted users.
+     */
+    private void promoteFromWaitlist(Long id, int seats) {
+        for (int promoted = 0; promoted < seats; ) {
+            Optional<WaitlistEntry> next = this.waitlistRepository.findFirstBySessionIdOrderByIdAsc(id);
+            if (next.isEmpty() || this.sessionRepository.reserveSeat(id) == 0) {
+                return;
+            }
+            this.waitlistRepository.delete(next.get());
+            if (this.sessionRepository.addParticipant(id, next.get().getUserId()) == 1) {
+                this.eventPublisher.publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, id, next.get().getUserId()));
+                promoted++;
+            } else {
+                this.sessionRepository.releaseSeat(id);
+            }
+        }
+    }
+
+    private RuntimeException participationFailure(Long id, Long userId) {
+        if (!this.sessionRepository.existsById(id) || !this.userRepository.existsById(userId)) {
+            return new NotFoundException();
+        }
+        return new BadRequestException();
+    }
 
-        session.setUsers(session.getUsers().stream().filter(user -> !user.getId().equals(userId)).collect(Collectors.toList()));
+    private Session countSeats(Session session) {
+        int seatsTaken = session.getUsers() == null ? 0 : session.getUsers().size();
+        if (session.getCapacity() != null && seatsTaken > session.getCapacity()) {
+            throw new BadRequestException();
+        }
+
+        return session.setSeatsTaken(seatsTaken);
+    }
+
+    /**
+     * Copies the editable fields on the locked session, refusing a capacity below the seats taken. A
+     * stored occurrence of a template moved to another date is excluded from the template at its former
+     * date. Returns the number of seats added, to be handed to waitlisted users.
+     */
+    private int replaceFields(Session stored, Session session) {
+        if (session.getCapacity() != null && session.getCapacity() < stored.getSeatsTaken()) {
+            throw new BadRequestException();
+        }
+
+        if (stored.getTemplate() != null && stored.getDate().getTime() != session.getDate().getTime()) {
+            this.sessionTemplateService.excludeOccurrence(stored.getTemplate().getId(), stored.getDate());
+        }
+
+        int seatsAdded = seatsAdded(stored.getCapacity(), session.getCapacity());
+        stored.setName(session.getName())
+                .setDate(session.getDate())
+                .setDescription(session.getDescription())
+                .setTeacher(session.getTeacher())
+                .setCapacity(session.getCapacity());
+        return seatsAdded;
+    }
+
+    /**
+     * Seats added by changing the capacity; removing the limit makes room for every waitlisted user.
+     */
+    private static int seatsAdded(Integer capacity, Integer newCapacity) {
+        if (capacity == null) {
+            return 0;
+        }
+
+        return newCapacity == null ? Integer.MAX_VALUE : Math.max(0, newCapacity - capacity);
+    }
+
+    private int checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException();
+        }
 
-        this.sessionRepository.save(session);
+        return size;
     }
 }
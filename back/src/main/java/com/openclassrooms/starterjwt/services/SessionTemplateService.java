@@ -0,0 +1,163 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionTemplateRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class SessionTemplateService {
+    private final SessionTemplateRepository sessionTemplateRepository;
+
+    private final SessionRepository sessionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SessionTemplateService(SessionTemplateRepository sessionTemplateRepository, SessionRepository sessionRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.sessionTemplateRepository = sessionTemplateRepository;
+        this.sessionRepository = sessionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public SessionTemplate create(SessionTemplate template) {
+        return save(checkRule(template));
+    }
+
+    public SessionTemplate update(Long id, SessionTemplate template) {
+        if (!this.sessionTemplateRepository.existsById(id)) {
+            throw new NotFoundException();
+        }
+
+        template.setId(id);
+        return save(checkRule(template));
+    }
+
+    public List<SessionTemplate> findAll() {
+        return this.sessionTemplateRepository.findAll();
+    }
+
+    public SessionTemplate getById(Long id) {
+        return this.sessionTemplateRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Occurrences of every template overlapping the window, as calendar rows without session id.
+     * Whether an occurrence is already stored is left to the caller, which has the stored rows at hand.
+     */
+    public List<SessionCalendarDto> findOccurrences(Date from, Date to, Long teacherId) {
+        List<SessionCalendarDto> occurrences = new ArrayList<>();
+        for (SessionTemplate template : this.sessionTemplateRepository.findActive(from, to, teacherId)) {
+            for (Date date : expand(template, from, to)) {
+                occurrences.add(new SessionCalendarDto(null, template.getName(), date, template.getTeacher().getId(),
+                        template.getTeacher().getFirstName(), template.getTeacher().getLastName(), 0, template.getId()));
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns the stored session of an occurrence, storing it first if needed. Two concurrent calls for
+     * the same occurrence are settled by the unique (template_id, date) key: the loser reads the winner's row.
+     */
+    public Session materialize(Long templateId, Date date) {
+        SessionTemplate template = this.sessionTemplateRepository.findById(templateId).orElseThrow(NotFoundException::new);
+        if (!expand(template, date, new Date(date.getTime() + 1)).contains(date)) {
+            throw new NotFoundException();
+        }
+
+        return this.sessionRepository.findByTemplateIdAndDate(templateId, date).orElseGet(() -> {
+            try {
+                Session session = this.sessionRepository.saveAndFlush(Session.builder()
+                        .name(template.getName())
+                        .description(template.getDescription())
+                        .capacity(template.getCapacity())
+                        .teacher(template.getTeacher())
+                        .date(date)
+                        .users(new ArrayList<>())
+                        .template(template)
+                        .build());
+                this.eventPublisher.publishEvent(SessionEvent.of(SessionEventType.SESSION_CREATED, session.getId()));
+                return session;
+            } catch (DataIntegrityViolationException e) {
+                return this.sessionRepository.findByTemplateIdAndDate(templateId, date).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    /**
+     * Adds the day of {@code date} to the template exceptions, once its stored occurrence is deleted or
+     * moved to another date, so that the computed occurrence does not show up again in its place.
+     */
+    public void excludeOccurrence(Long templateId, Date date) {
+        SessionTemplate template = this.sessionTemplateRepository.findById(templateId).orElseThrow(NotFoundException::new);
+        if (template.getExceptions() == null) {
+            template.setExceptions(new HashSet<>());
+        }
+        template.getExceptions().add(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()).toLocalDate());
+        this.sessionTemplateRepository.save(template);
+    }
+
+    /**
+     * Occurrence dates in [from, to). The first candidate is computed from the window start, so the cost
+     * depends on the window and not on how far it is from the template start. Occurrences keep their
+     * wall-clock time across daylight saving changes; exceptions still count towards {@code count}.
+     */
+    public static List<Date> expand(SessionTemplate template, Date from, Date to) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime first = LocalDateTime.ofInstant(template.getStart().toInstant(), zone);
+        long step = (long) template.getFrequency().getDays() * template.getInterval();
+        long skipped = ChronoUnit.DAYS.between(first.toLocalDate(), LocalDateTime.ofInstant(from.toInstant(), zone).toLocalDate());
+        Set<LocalDate> exceptions = template.getExceptions() != null ? new HashSet<>(template.getExceptions()) : Collections.emptySet();
+
+        List<Date> occurrences = new ArrayList<>();
+        for (long k = Math.max(0, skipped / step - 1); template.getCount() == null || k < template.getCount(); k++) {
+            LocalDateTime occurrence = first.plusDays(k * step);
+            Date date = Date.from(occurrence.atZone(zone).toInstant());
+            if (!date.before(to) || (template.getUntil() != null && date.after(template.getUntil()))) {
+                break;
+            }
+            if (!date.before(from) && !exceptions.contains(occurrence.toLocalDate())) {
+                occurrences.add(date);
+            }
+        }
+        return occurrences;
+    }
+
+    private SessionTemplate save(SessionTemplate template) {
+        try {
+            return this.sessionTemplateRepository.save(template);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private SessionTemplate checkRule(SessionTemplate template) {
+        if (template.getCount() != null && template.getUntil() != null) {
+            throw new BadRequestException();
+        }
+        if (template.getUntil() != null && template.getUntil().before(template.getStart())) {
+            throw new BadRequestException();
+        }
+
+        // stored occurrences are matched on their exact date, which the database keeps to the second
+        return template.setStart(Date.from(template.getStart().toInstant().truncatedTo(ChronoUnit.SECONDS)));
+    }
+}
@@ -21,4 +21,12 @@ public class TeacherService {
     public Teacher findById(Long id) {
         return this.teacherRepository.findById(id).orElse(null);
     }
+
+    /**
+     * Returns an uninitialized proxy, for callers that only need the teacher as a foreign key.
+     * No statement is issued; an unknown id surfaces when the referencing row is written.
+     */
+    public Teacher getReference(Long id) {
+        return this.teacherRepository.getById(id);
+    }
 }
@@ -2,21 +2,54 @@ package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final UserDetailsCache userDetailsCache;
+
+    public UserService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
+    @Transactional
     public void delete(Long id) {
+        this.userRepository.findById(id).ifPresent(user -> this.userDetailsCache.evict(user.getEmail()));
         this.userRepository.deleteById(id);
     }
 
     public User findById(Long id) {
         return this.userRepository.findById(id).orElse(null);
     }
+
+    /**
+     * Loads the given users with a single statement, in the order of {@code ids}.
+     * Duplicate ids are collapsed and unknown ids are dropped.
+     */
+    public List<User> findAllById(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<Long, User> usersById = this.userRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return distinctIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,21 @@
+-- Optional seat limit of a session and the number of seats taken, kept in the row so that a
+-- reservation is a single conditional update.
+ALTER TABLE SESSIONS ADD COLUMN capacity INT;
+ALTER TABLE SESSIONS ADD COLUMN seats_taken INT NOT NULL DEFAULT 0;
+
+-- PARTICIPATE has no key yet: count the users V3 keeps, ignoring duplicate and incomplete rows.
+UPDATE SESSIONS s SET seats_taken = (
+  SELECT COUNT(DISTINCT p.user_id) FROM PARTICIPATE p WHERE p.session_id = s.id AND p.user_id IS NOT NULL
+);
+
+-- Users waiting for a seat of a full session, promoted in order of arrival.
+CREATE TABLE WAITLIST (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  session_id INT NOT NULL,
+  user_id INT NOT NULL,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE (session_id, user_id)
+);
+
+ALTER TABLE WAITLIST ADD CONSTRAINT fk_waitlist_user FOREIGN KEY (user_id) REFERENCES USERS (id);
+ALTER TABLE WAITLIST ADD CONSTRAINT fk_waitlist_session FOREIGN KEY (session_id) REFERENCES SESSIONS (id);
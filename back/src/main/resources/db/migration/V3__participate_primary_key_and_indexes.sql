@@ -0,0 +1,24 @@
+-- PARTICIPATE had no key: rebuild it with (session_id, user_id) as primary key,
+-- dropping incomplete and duplicate rows on the way.
+CREATE TABLE PARTICIPATE_NEW (
+  session_id INT NOT NULL,
+  user_id INT NOT NULL,
+  PRIMARY KEY (session_id, user_id)
+);
+
+INSERT INTO PARTICIPATE_NEW (session_id, user_id)
+SELECT DISTINCT session_id, user_id FROM PARTICIPATE
+WHERE session_id IS NOT NULL AND user_id IS NOT NULL;
+
+DROP TABLE PARTICIPATE;
+
+ALTER TABLE PARTICIPATE_NEW RENAME TO PARTICIPATE;
+
+-- "sessions of a user" lookups
+CREATE INDEX idx_participate_user_session ON PARTICIPATE (user_id, session_id);
+
+ALTER TABLE PARTICIPATE ADD CONSTRAINT fk_participate_session FOREIGN KEY (session_id) REFERENCES SESSIONS (id);
+ALTER TABLE PARTICIPATE ADD CONSTRAINT fk_participate_user FOREIGN KEY (user_id) REFERENCES USERS (id);
+
+-- date-ordered listing and keyset pagination
+CREATE INDEX idx_sessions_date_id ON SESSIONS (date, id);
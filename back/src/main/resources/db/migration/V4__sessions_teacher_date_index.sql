@@ -0,0 +1,2 @@
+-- calendar queries filtered by teacher over a date range
+CREATE INDEX idx_sessions_teacher_date ON SESSIONS (teacher_id, date);
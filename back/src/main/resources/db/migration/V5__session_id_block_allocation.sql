@@ -0,0 +1,7 @@
+-- session ids are handed out in blocks of 50 from this row so that inserts can be batched;
+-- the next block starts after the ids already used by AUTO_INCREMENT
+CREATE TABLE SESSION_SEQ (
+  next_val BIGINT NOT NULL
+);
+
+INSERT INTO SESSION_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM SESSIONS;
@@ -0,0 +1,29 @@
+-- recurring sessions: occurrences are computed on read and stored in SESSIONS on first participation
+CREATE TABLE SESSION_TEMPLATES (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL,
+  description VARCHAR(2500) NOT NULL,
+  capacity INT,
+  teacher_id INT NOT NULL,
+  start_date DATETIME NOT NULL,
+  frequency VARCHAR(10) NOT NULL,
+  recurrence_interval INT NOT NULL DEFAULT 1,
+  occurrence_count INT,
+  until_date DATETIME,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  CONSTRAINT fk_session_templates_teacher FOREIGN KEY (teacher_id) REFERENCES TEACHERS (id)
+);
+
+CREATE TABLE SESSION_TEMPLATE_EXCEPTIONS (
+  template_id INT NOT NULL,
+  exception_date DATE NOT NULL,
+  PRIMARY KEY (template_id, exception_date),
+  CONSTRAINT fk_session_template_exceptions_template FOREIGN KEY (template_id) REFERENCES SESSION_TEMPLATES (id)
+);
+
+ALTER TABLE SESSIONS ADD COLUMN template_id INT;
+ALTER TABLE SESSIONS ADD CONSTRAINT fk_sessions_template FOREIGN KEY (template_id) REFERENCES SESSION_TEMPLATES (id);
+
+-- an occurrence is stored at most once
+CREATE UNIQUE INDEX uk_sessions_template_date ON SESSIONS (template_id, date);
@@ -0,0 +1,2 @@
+-- optimistic locking of session edits; joining or leaving a session does not change the version
+ALTER TABLE SESSIONS ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -3,7 +3,7 @@ package com.openclassrooms.starterjwt;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.flyway.enabled=false")
 public class SpringBootSecurityJwtApplicationTests {
 
 	@Test
@@ -0,0 +1,80 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new BulkheadFilter(0, 2, meterRegistry)
+                .group("auth", "/api/auth", 1)
+                .group("session", "/api/session", 1);
+    }
+
+    @Test
+    @DisplayName("group saturated -> 503 with Retry-After, other groups and paths, even sharing the prefix, still served")
+    public void testDoFilter_saturated_rejected() throws Exception {
+        // Arrange
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        // the outer request holds the only session permit while the nested ones come in
+        FilterChain holdingChain = (request, response) -> {
+            nested.add(perform("/api/session/1"));
+            nested.add(perform("/api/auth/login"));
+            nested.add(perform("/api/user/1"));
+            nested.add(perform("/api/session-template/1"));
+        };
+
+        // Act
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/session"), outer, holdingChain);
+
+        // Assert
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested.get(0).getStatus()).isEqualTo(503);
+        assertThat(nested.get(0).getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(nested.get(1).getStatus()).isEqualTo(200);
+        assertThat(nested.get(2).getStatus()).isEqualTo(200);
+        assertThat(nested.get(3).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("bulkhead.rejected", "group", "session").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("request done -> permit released for the next one")
+    public void testDoFilter_released() throws Exception {
+        // Act
+        MockHttpServletResponse first = perform("/api/session");
+        MockHttpServletResponse second = perform("/api/session");
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("bulkhead.available").tag("group", "session").gauge().value()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse perform(String path) throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, (request, servletResponse) -> { });
+        return response;
+    }
+}
@@ -0,0 +1,66 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class SqlStatementFilterTest {
+
+    private static final FilterChain TWO_STATEMENTS = (request, response) -> {
+        SqlStatementStats stats = SqlStatementStats.current();
+        stats.prepared("select * from SESSIONS where id = ?");
+        stats.executed(TimeUnit.MILLISECONDS.toNanos(3));
+        stats.executed(TimeUnit.MILLISECONDS.toNanos(4));
+        response.getWriter().write("[]");
+        response.flushBuffer();
+    };
+
+    @Test
+    @DisplayName("headers enabled -> statement count and time added before the body is committed")
+    public void testDoFilter_headersEnabled() throws Exception {
+        // Arrange
+        SqlStatementFilter filter = new SqlStatementFilter(true, 200, 1, Map.of());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/session"), response, TWO_STATEMENTS);
+
+        // Assert
+        assertThat(response.getHeader(SqlStatementFilter.STATEMENTS_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(SqlStatementFilter.TIME_HEADER)).isEqualTo("7");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+        assertThat(SqlStatementStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("headers disabled -> no header, nothing recorded after the request")
+    public void testDoFilter_headersDisabled() throws Exception {
+        // Arrange
+        SqlStatementFilter filter = new SqlStatementFilter(false, 200, 1, Map.of("GET /api/session", 5));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/session"), response, TWO_STATEMENTS);
+
+        // Assert
+        assertThat(response.getHeader(SqlStatementFilter.STATEMENTS_HEADER)).isNull();
+        assertThat(SqlStatementStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("statement shape -> whitespace collapsed and IN lists folded")
+    public void testShape() {
+        // Act
+        String shape = SqlStatementStats.shape("select u.id\n  from USERS u where u.id in (?, ?,?) and u.admin = ?");
+
+        // Assert
+        assertThat(shape).isEqualTo("select u.id from USERS u where u.id in (?...) and u.admin = ?");
+    }
+}
@@ -0,0 +1,40 @@
+package com.openclassrooms.starterjwt.config;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadConfigTest {
+
+    private static final boolean VIRTUAL_THREADS = Runtime.version().feature() >= 21;
+
+    @Test
+    @DisplayName("runtime without virtual threads -> startup fails instead of keeping platform threads")
+    public void testExecutor_unsupportedRuntime() {
+        assumeTrue(!VIRTUAL_THREADS, "runtime supports virtual threads");
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+        assertThat(e.getMessage()).contains("Java 21");
+    }
+
+    @Test
+    @DisplayName("runtime with virtual threads -> tasks run on virtual threads")
+    public void testExecutor_virtualThreads() throws Exception {
+        assumeTrue(VIRTUAL_THREADS, "runtime without virtual threads");
+
+        // Arrange
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+
+        // Act
+        Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+        executor.shutdown();
+
+        // Assert
+        assertThat(virtual).isEqualTo(true);
+    }
+}
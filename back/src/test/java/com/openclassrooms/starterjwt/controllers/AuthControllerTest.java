@@ -1,7 +1,5 @@
 package com.openclassrooms.starterjwt.controllers;
 
-import java.util.Optional;
-
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -16,12 +14,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,6 +30,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.payload.request.LoginRequest;
 import com.openclassrooms.starterjwt.payload.request.SignupRequest;
@@ -39,6 +40,9 @@ import com.openclassrooms.starterjwt.repository.UserRepository;
 import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class AuthControllerTest {
 
@@ -57,6 +61,9 @@ public class AuthControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private LoginRequest loginRequest;
     private SignupRequest signUpRequest;
 
@@ -86,7 +93,6 @@ public class AuthControllerTest {
         Authentication authentication = mock(Authentication.class);
         when(authentication.getPrincipal()).thenReturn(userDetails);
 
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
         when(jwtUtils.generateJwtToken(authentication)).thenReturn("jwtToken");
 
@@ -104,6 +110,8 @@ public class AuthControllerTest {
         assertThat(jwtResponse.getFirstName()).isEqualTo(user.getFirstName());
         assertThat(jwtResponse.getLastName()).isEqualTo(user.getLastName());
         assertTrue(jwtResponse.getAdmin());
+        verifyNoInteractions(userRepository);
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "success").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -119,6 +127,7 @@ public class AuthControllerTest {
         assertThat(exception).isInstanceOf(BadCredentialsException.class);
         assertThat(exception.getMessage()).isEqualTo("Invalid credentials");
         verifyNoInteractions(jwtUtils, userRepository);
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "failure").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -157,4 +166,37 @@ public class AuthControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertInstanceOf(MessageResponse.class, response.getBody());
     }
+
+    @Test
+    @DisplayName("Authenticate user while password hashing is saturated → Service Unavailable")
+    public void testAuthenticateUser_hashingSaturated_serviceUnavailable() {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenThrow(new ServiceUnavailableException(2));
+
+        // Act
+        ResponseEntity<?> response = authController.authenticateUser(loginRequest);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertInstanceOf(MessageResponse.class, response.getBody());
+        verifyNoInteractions(jwtUtils, userRepository);
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Register new user while password hashing is saturated → Service Unavailable")
+    public void testRegisterNewUser_hashingSaturated_serviceUnavailable() {
+        // Arrange
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenThrow(new ServiceUnavailableException(1));
+
+        // Act
+        ResponseEntity<?> response = authController.registerUser(signUpRequest);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        verify(userRepository, times(0)).save(any());
+    }
 }
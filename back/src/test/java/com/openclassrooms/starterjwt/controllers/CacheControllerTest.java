@@ -0,0 +1,111 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.util.List;
+
+import javax.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.openclassrooms.starterjwt.config.HibernateCacheConfig;
+import com.openclassrooms.starterjwt.payload.response.CacheStatsResponse;
+import com.openclassrooms.starterjwt.security.jwt.JwtClaimsCache;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheControllerTest {
+
+    @Mock
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private CacheManager hibernateCacheManager;
+
+    @Mock
+    private javax.cache.Cache<Object, Object> teacherRegion;
+
+    @Mock
+    private javax.cache.Cache<Object, Object> queryRegion;
+
+    @InjectMocks
+    private CacheController cacheController;
+
+    @Test
+    @DisplayName("Cache stats → Success")
+    @SuppressWarnings("unchecked")
+    void testStats() {
+        // Arrange
+        authenticate(true);
+        when(jwtClaimsCache.size()).thenReturn(3L);
+        when(jwtClaimsCache.stats()).thenReturn(CacheStats.of(9, 1, 0, 0, 0, 2, 0));
+        when(userDetailsCache.size()).thenReturn(1L);
+        when(userDetailsCache.stats()).thenReturn(CacheStats.empty());
+        Cache<Object, Object> teachers = Caffeine.newBuilder().recordStats().build();
+        teachers.put(1L, "teacher");
+        teachers.getIfPresent(1L);
+        teachers.getIfPresent(2L);
+        when(hibernateCacheManager.getCache(HibernateCacheConfig.TEACHER_REGION)).thenReturn(teacherRegion);
+        when(teacherRegion.unwrap(Cache.class)).thenReturn(teachers);
+        when(hibernateCacheManager.getCache(HibernateCacheConfig.QUERY_RESULTS_REGION)).thenReturn(queryRegion);
+        when(queryRegion.unwrap(Cache.class)).thenReturn(Caffeine.newBuilder().recordStats().build());
+
+        // Act
+        ResponseEntity<?> response = cacheController.stats();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<CacheStatsResponse> stats = (List<CacheStatsResponse>) response.getBody();
+        assertThat(stats).extracting(CacheStatsResponse::getName).containsExactly("jwtClaims", "userDetails",
+                HibernateCacheConfig.TEACHER_REGION, HibernateCacheConfig.QUERY_RESULTS_REGION);
+        assertThat(stats.get(0).getHitCount()).isEqualTo(9);
+        assertThat(stats.get(0).getEvictionCount()).isEqualTo(2);
+        assertThat(stats.get(0).getHitRate()).isEqualTo(0.9);
+        assertThat(stats.get(0).getSize()).isEqualTo(3);
+        assertThat(stats.get(2).getSize()).isEqualTo(1);
+        assertThat(stats.get(2).getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Cache stats by a non-admin user → Forbidden")
+    void testStats_notAdmin_forbidden() {
+        // Arrange
+        authenticate(false);
+
+        // Act
+        ResponseEntity<?> response = cacheController.stats();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(response.getBody()).isNull();
+        verifyNoInteractions(jwtClaimsCache, userDetailsCache, hibernateCacheManager);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(boolean admin) {
+        UserDetailsImpl userDetails = UserDetailsImpl.builder().id(1L).username("yoga@studio.com").admin(admin).build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, 60000);
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Retry while the first request still runs → Conflict")
+    public void testExecute_inFlight_conflict() {
+        // Act
+        ResponseEntity<?> retry = store.execute("key", () -> {
+            ResponseEntity<?> nested = store.execute("key", ResponseEntity.ok()::build, "request");
+            return ResponseEntity.status(nested.getStatusCode()).build();
+        }, "request");
+
+        // Assert
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("Same key sent by two users → Each request run")
+    public void testExecute_keyScopedToUser() {
+        // Arrange
+        authenticate("first@test.com");
+        store.execute("key", () -> ResponseEntity.ok().body("first"), "request");
+        authenticate("second@test.com");
+
+        // Act
+        ResponseEntity<?> response = store.execute("key", () -> ResponseEntity.ok().body("second"), "request");
+
+        // Assert
+        assertThat(response.getBody()).isEqualTo("second");
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Retry after the time to live → Run again")
+    public void testExecute_expired_runAgain() throws InterruptedException {
+        // Arrange
+        IdempotencyStore shortLived = new IdempotencyStore(100, 10);
+        shortLived.execute("key", () -> ResponseEntity.ok().body("first"), "request");
+        Thread.sleep(50);
+
+        // Act
+        ResponseEntity<?> response = shortLived.execute("key", () -> ResponseEntity.ok().body("second"), "request");
+
+        // Assert
+        assertThat(response.getBody()).isEqualTo("second");
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null));
+    }
+}
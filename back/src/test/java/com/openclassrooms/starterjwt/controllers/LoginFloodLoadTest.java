@@ -0,0 +1,163 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.openclassrooms.starterjwt.SpringBootSecurityJwtApplication;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.LoginRequest;
+import com.openclassrooms.starterjwt.payload.response.JwtResponse;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+
+/**
+ * Floods the login endpoint with more clients than Tomcat has threads while timing the session listing,
+ * once with the hashing pool bounded and once with a pool as large as the flood. Unbounded, every Tomcat
+ * thread ends up hashing and the listing waits behind the logins; bounded, the excess logins are shed
+ * and the threads left over keep serving the listing.
+ */
+@DisplayName("Login flood load test")
+@Tag("load")
+@Slf4j
+public class LoginFloodLoadTest {
+
+    private static final int TOMCAT_THREADS = 8;
+    private static final int FLOODING_CLIENTS = 2 * TOMCAT_THREADS;
+    private static final int PROBES = 20;
+
+    @Test
+    @DisplayName("Flood login while listing sessions, bounded then unbounded hashing → Only the bounded pool sheds logins and keeps listing fast")
+    public void testLoginFlood_boundedHashingProtectsServletPool() throws Exception {
+        // Act
+        Result bounded = run(1, 4);
+        Result unbounded = run(FLOODING_CLIENTS, FLOODING_CLIENTS);
+
+        // Assert
+        log.info("bounded hashing: {}, unbounded hashing: {}", bounded, unbounded);
+        assertThat(bounded.shed).isPositive();
+        assertThat(bounded.shedWithRetryAfter).isEqualTo(bounded.shed);
+        assertThat(bounded.accepted).isPositive();
+        assertThat(unbounded.shed).isZero();
+        assertThat(bounded.p95).isLessThan(unbounded.p95);
+    }
+
+    private Result run(int hashingThreads, int hashingQueueSize) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootSecurityJwtApplication.class)
+                // arguments, so that they win over application.properties
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loginflood" + hashingThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--oc.app.passwordHashingThreads=" + hashingThreads,
+                        "--oc.app.passwordHashingQueueSize=" + hashingQueueSize,
+                        "--oc.app.passwordHashingRetryAfterSeconds=1")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            context.getBean(UserRepository.class).save(new User("flood@example.com", "Flood", "Load",
+                    context.getBean(PasswordEncoder.class).encode("password"), false));
+            TestRestTemplate restTemplate = new TestRestTemplate(context.getBean(RestTemplateBuilder.class));
+            ResponseEntity<JwtResponse> login = restTemplate.postForEntity(baseUrl + "/api/auth/login", loginRequest(),
+                    JwtResponse.class);
+            assertThat(login.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            return flood(restTemplate, baseUrl, login.getBody().getToken());
+        }
+    }
+
+    private static Result flood(TestRestTemplate restTemplate, String baseUrl, String token) throws Exception {
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger shedWithRetryAfter = new AtomicInteger();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOODING_CLIENTS);
+        for (int i = 0; i < FLOODING_CLIENTS; i++) {
+            flood.submit(() -> {
+                while (flooding.get()) {
+                    ResponseEntity<String> response = restTemplate.postForEntity(baseUrl + "/api/auth/login",
+                            loginRequest(), String.class);
+                    if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                        shed.incrementAndGet();
+                        if (response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER) != null) {
+                            shedWithRetryAfter.incrementAndGet();
+                        }
+                    } else {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        Thread.sleep(500);
+
+        List<Long> latencies = new ArrayList<>();
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(token);
+            for (int i = 0; i < PROBES; i++) {
+                long start = System.nanoTime();
+                ResponseEntity<String> response = restTemplate.exchange(baseUrl + "/api/session", HttpMethod.GET,
+                        new HttpEntity<>(headers), String.class);
+                latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            }
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            flood.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        Collections.sort(latencies);
+        long p95 = latencies.get((int) Math.ceil(latencies.size() * 0.95) - 1);
+        return new Result(accepted.get(), shed.get(), shedWithRetryAfter.get(), p95);
+    }
+
+    private static LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("flood@example.com");
+        request.setPassword("password");
+        return request;
+    }
+
+    private static final class Result {
+        private final int accepted;
+        private final int shed;
+        private final int shedWithRetryAfter;
+        private final long p95;
+
+        private Result(int accepted, int shed, int shedWithRetryAfter, long p95) {
+            this.accepted = accepted;
+            this.shed = shed;
+            this.shedWithRetryAfter = shedWithRetryAfter;
+            this.p95 = p95;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("logins accepted=%d shed=%d, listing p95=%dms", accepted, shed, p95);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.LoginRequest;
+import com.openclassrooms.starterjwt.payload.response.JwtResponse;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMetrics
+@DisplayName("Metrics endpoint")
+public class MetricsEndpointTest {
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Scrape after a login and a join → Request, auth, pool, statement and participation metrics on the management port")
+    public void testPrometheus_scrape() {
+        // Arrange
+        User user = userRepository.save(new User("metrics@test.com", "Last", "First", passwordEncoder.encode("password"), false));
+        // session ids are taken from SESSION_SEQ, like Hibernate does
+        Long sessionId = jdbcTemplate.queryForObject("SELECT next_val FROM SESSION_SEQ", Long.class);
+        jdbcTemplate.update("UPDATE SESSION_SEQ SET next_val = next_val + 1");
+        jdbcTemplate.update("INSERT INTO SESSIONS (id, name, description, date, teacher_id, seats_taken) "
+                + "VALUES (?, 'Yoga', 'description', CURRENT_TIMESTAMP, 1, 0)", sessionId);
+
+        ResponseEntity<JwtResponse> login = restTemplate.postForEntity("/api/auth/login", login(), JwtResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().getToken());
+        restTemplate.exchange("/api/session", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        restTemplate.exchange("/api/session/" + sessionId + "/participate/" + user.getId(), HttpMethod.POST,
+                new HttpEntity<>(headers), String.class);
+
+        // Act
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        ResponseEntity<String> publicScrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // Assert
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/session\"")
+                .contains("auth_login_total{outcome=\"success\"")
+                .contains("jwt_issue_seconds_count")
+                .contains("jwt_verify_seconds_count{outcome=\"valid\"")
+                .contains("password_hashing_seconds_count{operation=\"matches\"")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .contains("session_participation_total{change=\"joined\",} 1.0");
+        assertThat(publicScrape.getStatusCode()).isNotEqualTo(HttpStatus.OK);
+    }
+
+    private static LoginRequest login() {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("metrics@test.com");
+        loginRequest.setPassword("password");
+        return loginRequest;
+    }
+}
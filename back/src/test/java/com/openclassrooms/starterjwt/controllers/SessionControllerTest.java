@@ -1,32 +1,65 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+
+import javax.validation.Validator;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionPatchRequest;
+import com.openclassrooms.starterjwt.payload.response.SessionBatchItemResponse;
+import com.openclassrooms.starterjwt.payload.response.SessionPageResponse;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.ParticipationStatus;
+import com.openclassrooms.starterjwt.services.SessionExportFormat;
+import com.openclassrooms.starterjwt.services.SessionExportService;
 import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.TeacherService;
 
 @ExtendWith(MockitoExtension.class)
 public class SessionControllerTest {
@@ -37,14 +70,32 @@ public class SessionControllerTest {
     @Mock
     private SessionMapper sessionMapper;
 
+    @Mock
+    private SessionExportService sessionExportService;
+
+    @Mock
+    private TeacherService teacherService;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60000);
+
     @InjectMocks
     private SessionController sessionController;
 
+    private MockHttpServletRequest servletRequest;
+    private ServletWebRequest request;
+
     private Session session;
     private SessionDto sessionDto;
 
     @BeforeEach
     void setUp() {
+        servletRequest = new MockHttpServletRequest("GET", "/api/session");
+        request = new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+
         session = Session.builder()
                 .id(1L)
                 .name("Test Session")
@@ -64,7 +115,9 @@ public class SessionControllerTest {
                 "Test Description",
                 List.of(1L),
                 LocalDateTime.now(),
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null,
+                null
         );
     }
 
@@ -72,17 +125,62 @@ public class SessionControllerTest {
     @DisplayName("Find session by id → Success")
     void testFindById() {
         // Arrange
+        Map<Long, List<Long>> participantIds = Map.of(1L, List.of(1L));
         when(sessionService.getById(1L)).thenReturn(session);
-        when(sessionMapper.toDto(session)).thenReturn(sessionDto);
+        when(sessionService.findParticipantIds(List.of(session))).thenReturn(participantIds);
+        when(sessionMapper.toDto(List.of(session), participantIds)).thenReturn(List.of(sessionDto));
 
         // Act
-        ResponseEntity<?> response = sessionController.findById("1");
+        ResponseEntity<?> response = sessionController.findById("1", request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(sessionDto);
+        assertThat(response.getHeaders().getETag()).isNotNull();
+        assertThat(response.getHeaders().getLastModified()).isPositive();
         verify(sessionService, times(1)).getById(1L);
-        verify(sessionMapper, times(1)).toDto(session);
+        verify(sessionMapper, times(1)).toDto(List.of(session), participantIds);
+    }
+
+    @Test
+    @DisplayName("Find session by id with matching If-None-Match → Not Modified without mapping")
+    void testFindById_NotModified() {
+        // Arrange
+        Map<Long, List<Long>> participantIds = Map.of(1L, List.of(1L));
+        when(sessionService.getById(1L)).thenReturn(session);
+        when(sessionService.findParticipantIds(List.of(session))).thenReturn(participantIds);
+        when(sessionMapper.toDto(List.of(session), participantIds)).thenReturn(List.of(sessionDto));
+        String etag = sessionController.findById("1", request).getHeaders().getETag();
+        servletRequest = new MockHttpServletRequest("GET", "/api/session/1");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<?> response = sessionController.findById("1", new ServletWebRequest(servletRequest, servletResponse));
+
+        // Assert
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(sessionMapper, times(1)).toDto(List.of(session), participantIds);
+    }
+
+    @Test
+    @DisplayName("Find session by id after a participant joined → New ETag")
+    void testFindById_participantJoined_newEtag() {
+        // Arrange
+        when(sessionService.getById(1L)).thenReturn(session);
+        when(sessionService.findParticipantIds(List.of(session)))
+                .thenReturn(Map.of(1L, List.of(1L)))
+                .thenReturn(Map.of(1L, List.of(1L, 2L)));
+        when(sessionMapper.toDto(any(), any())).thenReturn(List.of(sessionDto));
+        String before = sessionController.findById("1", request).getHeaders().getETag();
+
+        // Act
+        ResponseEntity<?> response = sessionController.findById("1", request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(before);
     }
 
     @Test
@@ -92,7 +190,7 @@ public class SessionControllerTest {
         when(sessionService.getById(1L)).thenReturn(null);
 
         // Act
-        ResponseEntity<?> response = sessionController.findById("1");
+        ResponseEntity<?> response = sessionController.findById("1", request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -103,7 +201,7 @@ public class SessionControllerTest {
     @DisplayName("Find session by id with invalid id → Bad Request")
     void testFindById_BadRequest() {
         // Act
-        ResponseEntity<?> response = sessionController.findById("invalid");
+        ResponseEntity<?> response = sessionController.findById("invalid", request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -114,17 +212,123 @@ public class SessionControllerTest {
     @DisplayName("Find all session → Success")
     void testFindAll_Success() {
         // Arrange
+        Map<Long, List<Long>> participantIds = Map.of(1L, List.of(1L));
         when(sessionService.findAll()).thenReturn(Collections.singletonList(session));
-        when(sessionMapper.toDto(Collections.singletonList(session))).thenReturn(Collections.singletonList(sessionDto));
+        when(sessionService.findParticipantIds(Collections.singletonList(session))).thenReturn(participantIds);
+        when(sessionMapper.toDto(Collections.singletonList(session), participantIds)).thenReturn(Collections.singletonList(sessionDto));
 
         // Act
-        ResponseEntity<?> response = sessionController.findAll();
+        ResponseEntity<?> response = sessionController.findAll(request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(Collections.singletonList(sessionDto));
         verify(sessionService, times(1)).findAll();
-        verify(sessionMapper, times(1)).toDto(Collections.singletonList(session));
+        verify(sessionMapper, times(1)).toDto(Collections.singletonList(session), participantIds);
+        verify(sessionMapper, never()).toDto(Collections.singletonList(session));
+    }
+
+    @Test
+    @DisplayName("Find all session summaries → Success")
+    void testFindAllSummaries_Success() {
+        // Arrange
+        List<SessionSummaryDto> summaries = List.of(new SessionSummaryDto(1L, "Test Session", new Date(), 1L, "Test Description", 3, null, null));
+        when(sessionService.findAllSummaries()).thenReturn(summaries);
+
+        // Act
+        ResponseEntity<?> response = sessionController.findAllSummaries();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(summaries);
+    }
+
+    @Test
+    @DisplayName("Find calendar rows → Success")
+    void testFindCalendar_Success() {
+        // Arrange
+        Date from = new Date(0);
+        Date to = new Date();
+        List<SessionCalendarDto> rows = List.of(new SessionCalendarDto(1L, "Test Session", new Date(), 1L, "Margot", "DELAHAYE", 3, null));
+        when(sessionService.findCalendar(from, to, 1L)).thenReturn(rows);
+
+        // Act
+        ResponseEntity<?> response = sessionController.findCalendar(from, to, 1L);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(rows);
+    }
+
+    @Test
+    @DisplayName("Find first keyset page → Success with next cursor")
+    void testFindPage_FirstKeysetPage() {
+        // Arrange
+        List<Session> content = Collections.singletonList(session);
+        when(sessionService.findAfter(null, 1)).thenReturn(new SliceImpl<>(content, PageRequest.of(0, 1), true));
+        when(sessionMapper.toDto(eq(content), any())).thenReturn(Collections.singletonList(sessionDto));
+
+        // Act
+        ResponseEntity<?> response = sessionController.findPage(1, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        SessionPageResponse body = (SessionPageResponse) response.getBody();
+        assertThat(body.getItems()).containsExactly(sessionDto);
+        assertThat(body.getPage()).isNull();
+        assertThat(body.getNext()).isEqualTo(SessionCursor.of(session).encode());
+    }
+
+    @Test
+    @DisplayName("Find keyset page after cursor → Success without next cursor on last page")
+    void testFindPage_AfterCursor() {
+        // Arrange
+        String cursor = SessionCursor.of(session).encode();
+        when(sessionService.findAfter(any(SessionCursor.class), anyInt())).thenReturn(new SliceImpl<>(Collections.emptyList()));
+        when(sessionMapper.toDto(eq(Collections.<Session>emptyList()), any())).thenReturn(Collections.emptyList());
+
+        // Act
+        ResponseEntity<?> response = sessionController.findPage(20, null, cursor);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((SessionPageResponse) response.getBody()).getNext()).isNull();
+        verify(sessionService, times(1)).findAfter(argThat(c -> c.getId().equals(1L) && c.getDate().equals(session.getDate())), eq(20));
+    }
+
+    @Test
+    @DisplayName("Find offset page → Success")
+    void testFindPage_Offset() {
+        // Arrange
+        List<Session> content = Collections.singletonList(session);
+        when(sessionService.findPage(2, 10)).thenReturn(new SliceImpl<>(content, PageRequest.of(2, 10), false));
+        when(sessionMapper.toDto(eq(content), any())).thenReturn(Collections.singletonList(sessionDto));
+
+        // Act
+        ResponseEntity<?> response = sessionController.findPage(10, 2, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((SessionPageResponse) response.getBody()).getPage()).isEqualTo(2);
+        assertThat(((SessionPageResponse) response.getBody()).getNext()).isNull();
+    }
+
+    @Test
+    @DisplayName("Find page with both page and cursor → Bad Request")
+    void testFindPage_PageAndCursor_BadRequest() {
+        // Act
+        ResponseEntity<?> response = sessionController.findPage(10, 0, "cursor");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(sessionService, never()).findPage(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Find page with malformed cursor → Bad Request")
+    void testFindPage_MalformedCursor_BadRequest() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionController.findPage(10, null, "not-a-cursor"));
     }
 
     @Test
@@ -136,7 +340,7 @@ public class SessionControllerTest {
         when(sessionMapper.toDto(any(Session.class))).thenReturn(sessionDto);
 
         // Act
-        ResponseEntity<?> response = sessionController.create(sessionDto);
+        ResponseEntity<?> response = sessionController.create(sessionDto, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -147,12 +351,14 @@ public class SessionControllerTest {
     }
 
     @Test
-    @DisplayName("Update session → Success")
+    @DisplayName("Update session → Success with the stored participants")
     void testUpdate_Success() {
         // Arrange
+        Map<Long, List<Long>> participantIds = Map.of(1L, List.of(1L));
         when(sessionService.update(anyLong(), any(Session.class))).thenReturn(session);
-        when(sessionMapper.toEntity(any(SessionDto.class))).thenReturn(session);
-        when(sessionMapper.toDto(any(Session.class))).thenReturn(sessionDto);
+        when(sessionMapper.toEntityWithoutUsers(any(SessionDto.class))).thenReturn(session);
+        when(sessionService.findParticipantIds(List.of(session))).thenReturn(participantIds);
+        when(sessionMapper.toDto(List.of(session), participantIds)).thenReturn(List.of(sessionDto));
 
         // Act
         ResponseEntity<?> response = sessionController.update("1", sessionDto);
@@ -161,8 +367,8 @@ public class SessionControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(sessionDto);
         verify(sessionService, times(1)).update(anyLong(), any(Session.class));
-        verify(sessionMapper, times(1)).toEntity(any(SessionDto.class));
-        verify(sessionMapper, times(1)).toDto(any(Session.class));
+        verify(sessionMapper, times(1)).toEntityWithoutUsers(any(SessionDto.class));
+        verify(sessionMapper, never()).toEntity(any(SessionDto.class));
     }
 
     @Test
@@ -176,6 +382,35 @@ public class SessionControllerTest {
         verify(sessionService, never()).update(anyLong(), any(Session.class));
     }
 
+    @Test
+    @DisplayName("Patch session → Success with the participants")
+    void testPatch_Success() {
+        // Arrange
+        SessionPatchRequest patch = new SessionPatchRequest("Renamed", null, null, null, null, 0L);
+        Map<Long, List<Long>> participantIds = Map.of(1L, List.of(1L));
+        when(sessionService.patch(1L, patch)).thenReturn(session);
+        when(sessionService.findParticipantIds(List.of(session))).thenReturn(participantIds);
+        when(sessionMapper.toDto(List.of(session), participantIds)).thenReturn(List.of(sessionDto));
+
+        // Act
+        ResponseEntity<?> response = sessionController.patch("1", patch);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(sessionDto);
+    }
+
+    @Test
+    @DisplayName("Patch session with invalid id → Bad Request")
+    void testPatch_BadRequest() {
+        // Act
+        ResponseEntity<?> response = sessionController.patch("invalid", new SessionPatchRequest());
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(sessionService, never()).patch(any(), any());
+    }
+
     @Test
     @DisplayName("Save session → Success")
     void testSave_Success() {
@@ -221,13 +456,91 @@ public class SessionControllerTest {
     @DisplayName("Participate in session → Success")
     void testParticipate_Success() {
         // Act
-        ResponseEntity<?> response = sessionController.participate("1", "1");
+        ResponseEntity<?> response = sessionController.participate("1", "1", null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         verify(sessionService, times(1)).participate(1L, 1L);
     }
 
+    @Test
+    @DisplayName("Participate in full session → Accepted on the waitlist")
+    void testParticipate_Waitlisted() {
+        // Arrange
+        when(sessionService.participate(1L, 1L)).thenReturn(ParticipationStatus.WAITLISTED);
+
+        // Act
+        ResponseEntity<?> response = sessionController.participate("1", "1", null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    @Test
+    @DisplayName("Create session retried with the same Idempotency-Key → First response replayed, created once")
+    void testCreate_retried_replayed() {
+        // Arrange
+        when(sessionService.create(any(Session.class))).thenReturn(session);
+        when(sessionMapper.toEntity(any(SessionDto.class))).thenReturn(session);
+        when(sessionMapper.toDto(any(Session.class))).thenReturn(sessionDto);
+        sessionController.create(sessionDto, "key-1");
+
+        // Act
+        ResponseEntity<?> response = sessionController.create(sessionDto, "key-1");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(sessionDto);
+        assertThat(response.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        verify(sessionService, times(1)).create(any(Session.class));
+    }
+
+    @Test
+    @DisplayName("Participate retried with the same Idempotency-Key → First status replayed instead of Bad Request")
+    void testParticipate_retried_replayed() {
+        // Arrange
+        when(sessionService.participate(1L, 1L)).thenReturn(ParticipationStatus.WAITLISTED);
+        sessionController.participate("1", "1", "key-1");
+
+        // Act
+        ResponseEntity<?> response = sessionController.participate("1", "1", "key-1");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        verify(sessionService, times(1)).participate(1L, 1L);
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key reused for another request → Unprocessable Entity")
+    void testParticipate_keyReused_UnprocessableEntity() {
+        // Arrange
+        sessionController.participate("1", "1", "key-1");
+
+        // Act
+        ResponseEntity<?> response = sessionController.participate("2", "1", "key-1");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        verify(sessionService, never()).participate(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Participate failed, retried with the same Idempotency-Key → Run again")
+    void testParticipate_failedThenRetried_runAgain() {
+        // Arrange
+        when(sessionService.participate(1L, 1L))
+                .thenThrow(new BadRequestException())
+                .thenReturn(ParticipationStatus.PARTICIPATING);
+        assertThrows(BadRequestException.class, () -> sessionController.participate("1", "1", "key-1"));
+
+        // Act
+        ResponseEntity<?> response = sessionController.participate("1", "1", "key-1");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(sessionService, times(2)).participate(1L, 1L);
+    }
+
     @Test
     @DisplayName("No longer participate in session → Success")
     void testNoLongerParticipate() {
@@ -249,4 +562,124 @@ public class SessionControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         verify(sessionService, never()).noLongerParticipate(anyLong(), anyLong());
     }
+
+    @Test
+    @DisplayName("Export sessions as admin → Streams the requested format")
+    void testExport_admin_streamsBody() throws Exception {
+        // Arrange
+        authenticate(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(sessionExportService.getTimeoutMs()).thenReturn(600000L);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = sessionController.export("csv", request);
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("text/csv"));
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("sessions.csv");
+        verify(sessionExportService, times(1)).export(SessionExportFormat.CSV, out);
+    }
+
+    @Test
+    @DisplayName("Export sessions → Export timeout on this request only")
+    void testExport_admin_exportTimeout() throws Exception {
+        // Arrange
+        authenticate(true);
+        servletRequest.setAsyncSupported(true);
+        when(sessionExportService.getTimeoutMs()).thenReturn(600000L);
+
+        // Act
+        sessionController.export("csv", request);
+        WebAsyncUtils.getAsyncManager(request).startCallableProcessing(() -> null);
+
+        // Assert
+        assertThat(servletRequest.getAsyncContext().getTimeout()).isEqualTo(600000L);
+    }
+
+    @Test
+    @DisplayName("Export sessions as non admin → Forbidden")
+    void testExport_notAdmin_forbidden() throws Exception {
+        // Arrange
+        authenticate(false);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = sessionController.export("ndjson", request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(response.getBody()).isNull();
+        verify(sessionExportService, never()).export(any(), any());
+    }
+
+    @Test
+    @DisplayName("Export sessions with unknown format → Bad Request")
+    void testExport_unknownFormat_badRequest() {
+        // Arrange
+        authenticate(true);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionController.export("xml", request));
+    }
+
+    @Test
+    @DisplayName("Save a batch of sessions → Ids returned per item")
+    void testSaveAll_Success() {
+        // Arrange
+        SessionDto second = new SessionDto(null, "Second", new Date(), 1L, "Description", List.of(), null, null, null, null);
+        List<SessionDto> sessionDtos = List.of(sessionDto, second);
+        List<Session> sessions = List.of(session, Session.builder().id(2L).build());
+        when(teacherService.findAll()).thenReturn(List.of(session.getTeacher()));
+        when(sessionMapper.toEntity(sessionDtos)).thenReturn(sessions);
+        when(sessionService.saveAll(sessions)).thenReturn(sessions);
+
+        // Act
+        ResponseEntity<?> response = sessionController.saveAll(sessionDtos);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(List.of(
+                new SessionBatchItemResponse(0, 1L, List.of()),
+                new SessionBatchItemResponse(1, 2L, List.of())));
+    }
+
+    @Test
+    @DisplayName("Save a batch with an unknown teacher → Bad Request with the item errors, nothing saved")
+    void testSaveAll_unknownTeacher_BadRequest() {
+        // Arrange
+        SessionDto unknownTeacher = new SessionDto(null, "Second", new Date(), 9L, "Description", List.of(), null, null, null, null);
+        when(teacherService.findAll()).thenReturn(List.of(session.getTeacher()));
+
+        // Act
+        ResponseEntity<?> response = sessionController.saveAll(List.of(sessionDto, unknownTeacher));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(List.of(
+                new SessionBatchItemResponse(0, 1L, List.of()),
+                new SessionBatchItemResponse(1, null, List.of("teacher_id: unknown teacher"))));
+        verify(sessionService, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Save an empty batch → Bad Request")
+    void testSaveAll_empty_BadRequest() {
+        // Act
+        ResponseEntity<?> response = sessionController.saveAll(List.of());
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(sessionService, never()).saveAll(any());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(boolean admin) {
+        UserDetailsImpl userDetails = UserDetailsImpl.builder().id(1L).username("yoga@studio.com").admin(admin).build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, null));
+    }
 }
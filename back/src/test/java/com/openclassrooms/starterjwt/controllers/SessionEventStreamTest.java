@@ -0,0 +1,242 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.SessionEvent;
+import com.openclassrooms.starterjwt.services.SessionEventBroker;
+import com.openclassrooms.starterjwt.services.SessionEventType;
+import com.openclassrooms.starterjwt.services.SessionService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:sessionevents;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "oc.app.sseReplaySize=3",
+        "oc.app.sseClientBufferSize=2",
+        "oc.app.sseHeartbeatMs=200"
+})
+@DisplayName("Session event stream")
+public class SessionEventStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionEventBroker sessionEventBroker;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        UserDetailsImpl user = UserDetailsImpl.builder().id(1L).username("yoga@studio.com").admin(true).build();
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null));
+    }
+
+    @Test
+    @DisplayName("Session created → event streamed once committed")
+    public void testStream_sessionCreated() throws Exception {
+        try (EventStream stream = new EventStream(null)) {
+            // Act
+            Session session = sessionService.create(Session.builder()
+                    .name("Yoga")
+                    .description("description")
+                    .date(new Date())
+                    .teacher(Teacher.builder().id(1L).build())
+                    .build());
+
+            // Assert
+            List<String> event = stream.nextEvent();
+            assertThat(event).contains("event:SESSION_CREATED");
+            assertThat(event).anyMatch(line -> line.startsWith("data:") && line.contains("\"sessionId\":" + session.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Reconnect with Last-Event-ID → missed events replayed in order")
+    public void testStream_resume() throws Exception {
+        // Arrange
+        String lastEventId;
+        try (EventStream stream = new EventStream(null)) {
+            sessionEventBroker.publish(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, 1L, 1L));
+            lastEventId = id(stream.nextEvent());
+        }
+        sessionEventBroker.publish(new SessionEvent(SessionEventType.PARTICIPANT_LEFT, 1L, 1L));
+        sessionEventBroker.publish(SessionEvent.of(SessionEventType.SESSION_DELETED, 1L));
+
+        // Act
+        try (EventStream stream = new EventStream(lastEventId)) {
+            List<String> first = stream.nextEvent();
+            List<String> second = stream.nextEvent();
+
+            // Assert
+            assertThat(first).contains("event:PARTICIPANT_LEFT");
+            assertThat(Long.parseLong(id(first))).isEqualTo(Long.parseLong(lastEventId) + 1);
+            assertThat(second).contains("event:SESSION_DELETED");
+            assertThat(Long.parseLong(id(second))).isEqualTo(Long.parseLong(lastEventId) + 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Reconnect further back than the client buffer, within the replay buffer → all missed events replayed")
+    public void testStream_resumeBeyondClientBuffer() throws Exception {
+        // Arrange
+        String lastEventId;
+        try (EventStream stream = new EventStream(null)) {
+            sessionEventBroker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
+            lastEventId = id(stream.nextEvent());
+        }
+        for (long sessionId = 2; sessionId <= 4; sessionId++) {
+            sessionEventBroker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, sessionId));
+        }
+
+        // Act
+        try (EventStream stream = new EventStream(lastEventId)) {
+            // Assert
+            for (int i = 1; i <= 3; i++) {
+                assertThat(Long.parseLong(id(stream.nextEvent()))).isEqualTo(Long.parseLong(lastEventId) + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reconnect with a negative Last-Event-ID → reset event")
+    public void testStream_resumeNegativeId_reset() throws Exception {
+        try (EventStream stream = new EventStream("-5")) {
+            // Assert
+            assertThat(stream.nextEvent()).contains("event:reset");
+        }
+    }
+
+    @Test
+    @DisplayName("Reconnect after the replay buffer moved on → reset event")
+    public void testStream_resumeTooLate_reset() throws Exception {
+        // Arrange
+        String lastEventId;
+        try (EventStream stream = new EventStream(null)) {
+            sessionEventBroker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
+            lastEventId = id(stream.nextEvent());
+        }
+        for (int i = 0; i < 4; i++) {
+            sessionEventBroker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
+        }
+
+        // Act
+        try (EventStream stream = new EventStream(lastEventId)) {
+            // Assert
+            assertThat(stream.nextEvent()).contains("event:reset");
+        }
+    }
+
+    @Test
+    @DisplayName("Idle stream → heartbeat comments")
+    public void testStream_heartbeat() throws Exception {
+        try (EventStream stream = new EventStream(null)) {
+            // Assert
+            assertThat(stream.next()).containsExactly(":heartbeat");
+        }
+    }
+
+    private static String id(List<String> event) {
+        return event.stream()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring("id:".length()))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+
+    private class EventStream implements AutoCloseable {
+        private final HttpURLConnection connection;
+
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        EventStream(String lastEventId) throws IOException {
+            connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api/session/events").openConnection();
+            connection.setRequestProperty(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            connection.setRequestProperty(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+            if (lastEventId != null) {
+                connection.setRequestProperty("Last-Event-ID", lastEventId);
+            }
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            assertThat(connection.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            Thread thread = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (IOException e) {
+                    // closed by the test
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Next block of lines up to the blank line that ends it.
+         */
+        List<String> next() throws InterruptedException {
+            List<String> block = new ArrayList<>();
+            String line;
+            while (!(line = poll()).isEmpty()) {
+                block.add(line);
+            }
+            return block;
+        }
+
+        List<String> nextEvent() throws InterruptedException {
+            List<String> block;
+            do {
+                block = next();
+            } while (block.stream().allMatch(line -> line.startsWith(":")));
+            return block;
+        }
+
+        private String poll() throws InterruptedException {
+            String line = lines.poll(5, TimeUnit.SECONDS);
+            assertThat(line).as("event stream line").isNotNull();
+            return line;
+        }
+
+        @Override
+        public void close() {
+            connection.disconnect();
+        }
+    }
+}
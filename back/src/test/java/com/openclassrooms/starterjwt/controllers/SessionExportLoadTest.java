@@ -0,0 +1,110 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@DisplayName("Session export load test")
+@Tag("load")
+public class SessionExportLoadTest {
+
+    private static final int SESSIONS = 1000;
+    private static final int USERS = 1000;
+    private static final long MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        // a file database spills the sorted million-row result to disk instead of the heap being measured;
+        // the page store seeds it several times faster than MVStore
+        String directory = Files.createTempDirectory("sessionexport").toString();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory + "/export;MV_STORE=FALSE");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private long expectedRows;
+
+    @BeforeEach
+    public void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PARTICIPATE", Long.class) == 0) {
+            jdbcTemplate.update("INSERT INTO USERS (last_name, first_name, admin, email, password) "
+                    + "SELECT 'Last' || X, 'First' || X, false, 'user' || X || '@test.com', 'password' FROM SYSTEM_RANGE(1, " + USERS + ")");
+            // session ids are taken from SESSION_SEQ, like Hibernate does
+            jdbcTemplate.update("INSERT INTO SESSIONS (id, name, description, date, teacher_id, seats_taken) "
+                    + "SELECT q.next_val + X - 1, 'Session ' || X, 'Export', CURRENT_TIMESTAMP, 1, 0 FROM SESSION_SEQ q, SYSTEM_RANGE(1, " + SESSIONS + ")");
+            jdbcTemplate.update("UPDATE SESSION_SEQ SET next_val = next_val + " + SESSIONS);
+            jdbcTemplate.update("INSERT INTO PARTICIPATE (session_id, user_id) SELECT s.id, u.id FROM SESSIONS s CROSS JOIN USERS u");
+        }
+        expectedRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PARTICIPATE", Long.class);
+    }
+
+    @Test
+    @DisplayName("Export a million attendance rows → Every row streamed, retained heap stays bounded")
+    public void testExport_millionRows_constantMemory() throws Exception {
+        // Arrange
+        assertThat(expectedRows).isGreaterThanOrEqualTo(1_000_000L);
+        UserDetailsImpl admin = UserDetailsImpl.builder().id(1L).username("yoga@studio.com").admin(true).build();
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(admin, null));
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        long retained = 0;
+        long lines = 0;
+
+        // Act
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api/session/export?format=csv").openConnection();
+        connection.setRequestProperty(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                if (++lines == expectedRows / 2) {
+                    retained = usedHeapAfterGc(memory) - baseline;
+                }
+            }
+        }
+
+        // Assert
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(lines).isEqualTo(expectedRows + 1);
+        assertThat(retained).isLessThan(MAX_RETAINED_BYTES);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
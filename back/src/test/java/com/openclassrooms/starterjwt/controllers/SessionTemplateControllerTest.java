@@ -0,0 +1,124 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionTemplateDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.mapper.SessionTemplateMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import com.openclassrooms.starterjwt.services.ParticipationStatus;
+import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.SessionTemplateService;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionTemplateControllerTest {
+
+    @Mock
+    private SessionTemplateService sessionTemplateService;
+
+    @Mock
+    private SessionTemplateMapper sessionTemplateMapper;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private SessionMapper sessionMapper;
+
+    @InjectMocks
+    private SessionTemplateController sessionTemplateController;
+
+    @Test
+    @DisplayName("Find template by id → Success")
+    void testFindById() {
+        // Arrange
+        SessionTemplate template = SessionTemplate.builder().id(9L).build();
+        SessionTemplateDto templateDto = new SessionTemplateDto();
+        when(sessionTemplateService.getById(9L)).thenReturn(template);
+        when(sessionTemplateMapper.toDto(template)).thenReturn(templateDto);
+
+        // Act
+        ResponseEntity<?> response = sessionTemplateController.findById("9");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(templateDto);
+    }
+
+    @Test
+    @DisplayName("Find template by id → Template not found")
+    void testFindById_NotFound() {
+        // Act
+        ResponseEntity<?> response = sessionTemplateController.findById("9");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Participate in an occurrence → Occurrence stored, then joined")
+    void testParticipate_Success() {
+        // Arrange
+        Date date = new Date();
+        Session session = Session.builder().id(4L).date(date).build();
+        SessionDto sessionDto = new SessionDto();
+        when(sessionTemplateService.materialize(9L, date)).thenReturn(session);
+        when(sessionService.participate(4L, 1L)).thenReturn(ParticipationStatus.PARTICIPATING);
+        when(sessionService.findParticipantIds(List.of(session))).thenReturn(Map.of(4L, List.of(1L)));
+        when(sessionMapper.toDto(List.of(session), Map.of(4L, List.of(1L)))).thenReturn(List.of(sessionDto));
+
+        // Act
+        ResponseEntity<?> response = sessionTemplateController.participate("9", "1", date);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(sessionDto);
+    }
+
+    @Test
+    @DisplayName("Participate in a full occurrence → Accepted on the waitlist")
+    void testParticipate_Waitlisted() {
+        // Arrange
+        Date date = new Date();
+        Session session = Session.builder().id(4L).date(date).build();
+        when(sessionTemplateService.materialize(9L, date)).thenReturn(session);
+        when(sessionService.participate(4L, 1L)).thenReturn(ParticipationStatus.WAITLISTED);
+        when(sessionMapper.toDto(any(), any())).thenReturn(List.of(new SessionDto()));
+
+        // Act
+        ResponseEntity<?> response = sessionTemplateController.participate("9", "1", date);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    @Test
+    @DisplayName("Participate with invalid user id → Bad Request, nothing stored")
+    void testParticipate_BadRequest() {
+        // Act
+        ResponseEntity<?> response = sessionTemplateController.participate("9", "invalid", new Date());
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(sessionTemplateService, never()).materialize(anyLong(), any());
+    }
+}
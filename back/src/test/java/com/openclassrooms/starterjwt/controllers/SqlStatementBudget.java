@@ -0,0 +1,40 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.openclassrooms.starterjwt.config.SqlStatementFilter;
+
+/**
+ * Statement budgets asserted on the {@code X-SQL-Statements} header, which needs
+ * {@code oc.app.sqlStatsHeaders=true}.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static ResultMatcher statementsAtMost(int budget) {
+        return result -> {
+            MockHttpServletRequest request = result.getRequest();
+            assertThat(statements(result.getResponse().getHeader(SqlStatementFilter.STATEMENTS_HEADER)))
+                    .as("SQL statements of %s %s", request.getMethod(), request.getRequestURI())
+                    .isLessThanOrEqualTo(budget);
+        };
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> {
+            MockHttpServletRequest request = result.getRequest();
+            assertThat(statements(result.getResponse().getHeader(SqlStatementFilter.STATEMENTS_HEADER)))
+                    .as("SQL statements of %s %s", request.getMethod(), request.getRequestURI())
+                    .isEqualTo(expected);
+        };
+    }
+
+    private static int statements(String header) {
+        assertThat(header).as(SqlStatementFilter.STATEMENTS_HEADER + " header").isNotNull();
+        return Integer.parseInt(header);
+    }
+}
@@ -0,0 +1,167 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.starterjwt.config.SqlStatementFilter;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import static com.openclassrooms.starterjwt.controllers.SqlStatementBudget.statements;
+import static com.openclassrooms.starterjwt.controllers.SqlStatementBudget.statementsAtMost;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementbudget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "oc.app.sqlStatsHeaders=true"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+@DisplayName("SQL statement budgets")
+public class SqlStatementBudgetTest {
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+            .withZone(ZoneOffset.UTC);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Teacher teacher;
+
+    private List<User> users;
+
+    @BeforeEach
+    public void setUp() {
+        teacher = teacherRepository.findAll().get(0);
+        users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(userRepository.save(new User("budget" + i + "-" + System.nanoTime() + "@test.com",
+                    "Last", "First", "password", false)));
+        }
+    }
+
+    @Test
+    @DisplayName("Session list → same statement count whatever the number of sessions and participants")
+    public void testFindAll_noNPlusOne() throws Exception {
+        // Arrange
+        saveSessions(2);
+        String few = mockMvc.perform(get("/api/session"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2))
+                .andReturn().getResponse().getHeader(SqlStatementFilter.STATEMENTS_HEADER);
+        saveSessions(20);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session"))
+                .andExpect(status().isOk())
+                .andExpect(statements(Integer.parseInt(few)));
+    }
+
+    @Test
+    @DisplayName("Session by id, page, calendar and summary → within budget")
+    public void testReads_withinBudget() throws Exception {
+        // Arrange
+        Long id = saveSessions(3).get(0).getId();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session/" + id))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2))
+                .andExpect(header().exists(SqlStatementFilter.TIME_HEADER));
+        mockMvc.perform(get("/api/session").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+        mockMvc.perform(get("/api/session")
+                        .param("from", ISO.format(Instant.now().minus(1, ChronoUnit.DAYS)))
+                        .param("to", ISO.format(Instant.now().plus(1, ChronoUnit.DAYS))))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+        mockMvc.perform(get("/api/session/summary"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Join then leave a session → within budget")
+    public void testParticipation_withinBudget() throws Exception {
+        // Arrange
+        Long id = saveSessions(1).get(0).getId();
+        Long userId = users.get(0).getId();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session/" + id + "/participate/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+        mockMvc.perform(delete("/api/session/" + id + "/participate/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(3));
+    }
+
+    @Test
+    @DisplayName("Register then login → within budget")
+    public void testAuth_withinBudget() throws Exception {
+        // Arrange
+        String email = "budget-" + System.nanoTime() + "@test.com";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"firstName\":\"First\",\"lastName\":\"Last\",\"password\":\"password\"}"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"password\"}"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    private List<Session> saveSessions(int count) {
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sessions.add(sessionRepository.save(Session.builder()
+                    .name("Yoga " + i)
+                    .description("description")
+                    .date(new Date())
+                    .teacher(teacher)
+                    .users(new ArrayList<>(users.subList(0, i % users.size())))
+                    .build()));
+        }
+        return sessions;
+    }
+}
@@ -0,0 +1,93 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:teachercache;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+@DisplayName("Teacher second-level cache")
+public class TeacherControllerCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Repeated teacher reads → no SQL after warm-up")
+    public void testFindTeachers_noStatementsAfterWarmUp() throws Exception {
+        // Arrange
+        Long id = teacherRepository.findAll().get(0).getId();
+        mockMvc.perform(get("/api/teacher")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/teacher/" + id)).andExpect(status().isOk());
+        statistics.clear();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/teacher"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2));
+            mockMvc.perform(get("/api/teacher/" + id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(id));
+        }
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(5);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Teacher written through JPA → cached list invalidated")
+    public void testSaveTeacher_invalidatesQueryCache() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/teacher")).andExpect(status().isOk());
+        Teacher teacher = teacherRepository.save(Teacher.builder().firstName("New").lastName("TEACHER").build());
+
+        try {
+            // Act & Assert
+            mockMvc.perform(get("/api/teacher"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3));
+        } finally {
+            teacherRepository.delete(teacher);
+        }
+    }
+}
@@ -15,9 +15,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.openclassrooms.starterjwt.dto.TeacherDto;
 import com.openclassrooms.starterjwt.mapper.TeacherMapper;
@@ -36,11 +42,17 @@ public class TeacherControllerTest {
     @InjectMocks
     private TeacherController teacherController;
 
+    private MockHttpServletRequest servletRequest;
+    private ServletWebRequest request;
+
     private Teacher teacher;
     private TeacherDto teacherDto;
 
     @BeforeEach
     public void setUp() {
+        servletRequest = new MockHttpServletRequest("GET", "/api/teacher");
+        request = new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+
         teacher = Teacher.builder()
                 .id(1L)
                 .lastName("Doe")
@@ -64,7 +76,7 @@ public class TeacherControllerTest {
         when(teacherService.findById(1L)).thenReturn(teacher);
         when(teacherMapper.toDto(teacher)).thenReturn(teacherDto);
 
-        ResponseEntity<?> response = teacherController.findById("1");
+        ResponseEntity<?> response = teacherController.findById("1", request);
 
         assertThat(response.getStatusCodeValue()).isEqualTo(200);
         assertThat(response.getBody()).isEqualTo(teacherDto);
@@ -78,7 +90,7 @@ public class TeacherControllerTest {
     public void testFindById_NotFound() {
         when(teacherService.findById(1L)).thenReturn(null);
 
-        ResponseEntity<?> response = teacherController.findById("1");
+        ResponseEntity<?> response = teacherController.findById("1", request);
 
         assertThat(response.getStatusCodeValue()).isEqualTo(404);
 
@@ -89,7 +101,7 @@ public class TeacherControllerTest {
     @Test
     @DisplayName("Find teacher by ID with invalid id→ Bad Request")
     public void testFindById_BadRequest() {
-        ResponseEntity<?> response = teacherController.findById("invalid");
+        ResponseEntity<?> response = teacherController.findById("invalid", request);
 
         assertThat(response.getStatusCodeValue()).isEqualTo(400);
 
@@ -106,7 +118,7 @@ public class TeacherControllerTest {
         when(teacherService.findAll()).thenReturn(teachers);
         when(teacherMapper.toDto(teachers)).thenReturn(teacherDtos);
 
-        ResponseEntity<?> response = teacherController.findAll();
+        ResponseEntity<?> response = teacherController.findAll(request);
 
         assertThat(response.getStatusCodeValue()).isEqualTo(200);
         assertThat(response.getBody()).isEqualTo(teacherDtos);
@@ -114,4 +126,35 @@ public class TeacherControllerTest {
         verify(teacherService, times(1)).findAll();
         verify(teacherMapper, times(1)).toDto(teachers);
     }
+
+    @Test
+    @DisplayName("Find teacher by id with matching If-Modified-Since → Not Modified without mapping")
+    public void testFindById_NotModifiedSince() {
+        when(teacherService.findById(1L)).thenReturn(teacher);
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, ConditionalGet.lastModified(teacher.getUpdatedAt()) + 1000);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<?> response = teacherController.findById("1", new ServletWebRequest(servletRequest, servletResponse));
+
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verifyNoInteractions(teacherMapper);
+    }
+
+    @Test
+    @DisplayName("Find all teacher with matching If-None-Match → Not Modified without mapping")
+    public void testFindAll_NotModified() {
+        List<Teacher> teachers = Collections.singletonList(teacher);
+        when(teacherService.findAll()).thenReturn(teachers);
+        String etag = teacherController.findAll(request).getHeaders().getETag();
+        servletRequest = new MockHttpServletRequest("GET", "/api/teacher");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<?> response = teacherController.findAll(new ServletWebRequest(servletRequest, servletResponse));
+
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(teacherMapper, times(1)).toDto(teachers);
+    }
 }
@@ -0,0 +1,149 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.openclassrooms.starterjwt.SpringBootSecurityJwtApplication;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+
+/**
+ * Runs the same session listing load against the platform-thread and the virtual-thread modes, with
+ * the same connection pool and a Tomcat pool smaller than the number of clients. Needs a Java 21
+ * runtime, it is skipped on older ones.
+ */
+@DisplayName("Thread mode load test")
+@Slf4j
+public class ThreadModeLoadTest {
+
+    private static final int CLIENTS = 64;
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    @Test
+    @DisplayName("Same load on platform then virtual threads → Both answer every request, shed ones with Retry-After")
+    public void testThreadModes_compared() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a Java 21 runtime");
+
+        // Act
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        // Assert
+        log.info("platform threads: {}, virtual threads: {}", platform, virtual);
+        assertThat(platform.errors).isZero();
+        assertThat(virtual.errors).isZero();
+        assertThat(platform.served).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+        assertThat(virtual.served + virtual.shed).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootSecurityJwtApplication.class)
+                // arguments, so that they win over application.properties
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:threadmode" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.datasource.hikari.maximum-pool-size=8",
+                        "--oc.app.bulkheadAuthPermits=2",
+                        "--oc.app.bulkheadSessionPermits=5",
+                        "--server.tomcat.threads.max=8",
+                        "--oc.app.virtualThreads=" + virtualThreads)) {
+            String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/session";
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            // session ids are taken from SESSION_SEQ, like Hibernate does
+            jdbcTemplate.update("INSERT INTO SESSIONS (id, name, description, date, teacher_id, seats_taken) "
+                    + "SELECT q.next_val + X - 1, 'Yoga', 'description', CURRENT_TIMESTAMP, 1, 0 FROM SESSION_SEQ q, SYSTEM_RANGE(1, 20)");
+            jdbcTemplate.update("UPDATE SESSION_SEQ SET next_val = next_val + 20");
+            UserDetailsImpl user = UserDetailsImpl.builder().id(1L).username("yoga@studio.com").admin(true).build();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(context.getBean(JwtUtils.class)
+                    .generateJwtToken(new UsernamePasswordAuthenticationToken(user, null)));
+
+            return load(new TestRestTemplate(), url, new HttpEntity<>(headers));
+        }
+    }
+
+    private static Result load(TestRestTemplate restTemplate, String url, HttpEntity<?> request) throws Exception {
+        AtomicInteger served = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> {
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    long requestStart = System.nanoTime();
+                    ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStart));
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        served.incrementAndGet();
+                    } else if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                            && response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER) != null) {
+                        shed.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.shutdown();
+
+        Collections.sort(latencies);
+        long p95 = latencies.get((int) Math.ceil(latencies.size() * 0.95) - 1);
+        return new Result(served.get(), shed.get(), errors.get(), elapsedMillis, p95);
+    }
+
+    private static final class Result {
+        private final int served;
+        private final int shed;
+        private final int errors;
+        private final long elapsedMillis;
+        private final long p95;
+
+        private Result(int served, int shed, int errors, long elapsedMillis, long p95) {
+            this.served = served;
+            this.shed = shed;
+            this.errors = errors;
+            this.elapsedMillis = elapsedMillis;
+            this.p95 = p95;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("served=%d shed=%d errors=%d requests/s=%d p95=%dms",
+                    served, shed, errors, elapsedMillis > 0 ? served * 1000L / elapsedMillis : served, p95);
+        }
+    }
+}
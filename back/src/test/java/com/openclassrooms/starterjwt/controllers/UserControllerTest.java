@@ -1,5 +1,10 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,18 +16,30 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.mapper.UserMapper;
+import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.response.SessionPageResponse;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.SessionService;
 import com.openclassrooms.starterjwt.services.UserService;
 
 public class UserControllerTest {
@@ -33,12 +50,23 @@ public class UserControllerTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private SessionMapper sessionMapper;
+
     @InjectMocks
     private UserController userController;
 
+    private MockHttpServletRequest servletRequest;
+    private ServletWebRequest request;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        servletRequest = new MockHttpServletRequest("GET", "/api/user/1");
+        request = new ServletWebRequest(servletRequest, new MockHttpServletResponse());
     }
 
     @Test
@@ -51,13 +79,33 @@ public class UserControllerTest {
         when(userService.findById(id)).thenReturn(user);
 
         // Act
-        ResponseEntity<?> response = userController.findById(id.toString());
+        ResponseEntity<?> response = userController.findById(id.toString(), request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         verify(userMapper).toDto(user);
     }
 
+    @Test
+    @DisplayName("Find User by ID with matching If-None-Match → Not Modified without mapping")
+    public void testFindById_NotModified() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        user.setUpdatedAt(LocalDateTime.now());
+        when(userService.findById(1L)).thenReturn(user);
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, ConditionalGet.etag(user.getId(), user.getUpdatedAt()));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<?> response = userController.findById("1", new ServletWebRequest(servletRequest, servletResponse));
+
+        // Assert
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verifyNoInteractions(userMapper);
+    }
+
     @Test
     @DisplayName("Find User by ID → User not found")
     public void testFindById_NotFound() {
@@ -66,7 +114,7 @@ public class UserControllerTest {
         when(userService.findById(id)).thenReturn(null);
 
         // Act
-        ResponseEntity<?> response = userController.findById(id.toString());
+        ResponseEntity<?> response = userController.findById(id.toString(), request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -76,7 +124,7 @@ public class UserControllerTest {
     @DisplayName("Find User by ID with bad type Id → Bad request")
     public void testFindById_WithNumberFormatException_BadRequest() {
         // Act
-        ResponseEntity<?> response = userController.findById("invalid_id");
+        ResponseEntity<?> response = userController.findById("invalid_id", request);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -154,4 +202,69 @@ public class UserControllerTest {
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
+
+    @Test
+    @DisplayName("Find my sessions → Sessions of the principal")
+    public void testFindMySessions_Success() {
+        // Arrange
+        Session session = Session.builder().id(3L).date(new Date()).build();
+        UserDetails userDetails = UserDetailsImpl.builder().id(7L).username("john.doe@example.com").build();
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(sessionService.findByParticipantAfter(7L, null, null, null, 20))
+                .thenReturn(new SliceImpl<>(List.of(session), PageRequest.of(0, 20), false));
+        when(sessionService.findParticipantIds(List.of(session))).thenReturn(Map.of(3L, List.of(7L)));
+
+        // Act
+        ResponseEntity<?> response = userController.findMySessions(null, null, null, null, 20);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((SessionPageResponse) response.getBody()).getNext()).isNull();
+        verify(sessionMapper).toDto(List.of(session), Map.of(3L, List.of(7L)));
+    }
+
+    @Test
+    @DisplayName("Find sessions of a user by page → Next cursor when more rows exist")
+    public void testFindSessions_Page_NextCursor() {
+        // Arrange
+        Date from = new Date(0);
+        Date to = new Date();
+        Session session = Session.builder().id(3L).date(new Date()).build();
+        when(sessionService.findPageByParticipant(1L, from, to, 0, 1))
+                .thenReturn(new SliceImpl<>(List.of(session), PageRequest.of(0, 1), true));
+
+        // Act
+        ResponseEntity<?> response = userController.findSessions("1", from, to, 0, null, 1);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        SessionPageResponse body = (SessionPageResponse) response.getBody();
+        assertThat(body.getPage()).isZero();
+        assertThat(body.getNext()).isEqualTo(SessionCursor.of(session).encode());
+    }
+
+    @Test
+    @DisplayName("Find sessions of a user with both page and cursor → Bad request")
+    public void testFindSessions_PageAndCursor_BadRequest() {
+        // Act
+        ResponseEntity<?> response = userController.findSessions("1", null, null, 0, "cursor", 20);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(sessionService);
+    }
+
+    @Test
+    @DisplayName("Find sessions of a user with invalid id → Bad request")
+    public void testFindSessions_NumberFormatException() {
+        // Act
+        ResponseEntity<?> response = userController.findSessions("invalid_id", null, null, null, null, 20);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
 }
@@ -94,6 +94,26 @@ public class SessionControllerIntegrationTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    @DisplayName("Find Sessions Page → Returns Items and Next Cursor")
+    public void testFindSessionPage_Success() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            sessionService.create(Session.builder()
+                    .name("Session " + i)
+                    .date(new Date())
+                    .description("Session description")
+                    .build());
+        }
+
+        mockMvc.perform(get("/api/session")
+                .param("size", "1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").isNotEmpty());
+    }
+
     @Test
     @DisplayName("Create Session → Saves and Returns Session")
     public void testCreateSession_Success() throws Exception {
@@ -0,0 +1,32 @@
+package com.openclassrooms.starterjwt.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+public class ConflictExceptionTest {
+
+    @Test
+    @DisplayName("ConflictException has good status")
+    public void testConflictException_HttpStatus() {
+        // Act
+        ConflictException exception = new ConflictException();
+
+        // Assert
+        ResponseStatus responseStatus = exception.getClass().getAnnotation(ResponseStatus.class);
+        assertEquals(HttpStatus.CONFLICT, responseStatus.value());
+    }
+
+    @Test
+    @DisplayName("ConflictException should be thrown")
+    public void testConflictException_ExceptionThrown() {
+        // Act & Assert
+        Throwable thrown = assertThrows(ConflictException.class, () -> {
+            throw new ConflictException();
+        });
+        assertEquals(thrown.getClass(), ConflictException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.openclassrooms.starterjwt.mapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import com.openclassrooms.starterjwt.services.UserService;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SessionMapperImpl.class, TeacherService.class, UserService.class, UserDetailsCache.class})
+public class SessionMapperStatementTest {
+
+    private static final int PARTICIPANTS = 150;
+
+    private static final Long UNKNOWN_USER_ID = 999_999L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SessionMapper sessionMapper;
+
+    private Statistics statistics;
+
+    private Teacher teacher;
+
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        teacher = entityManager.persist(Teacher.builder().firstName("First").lastName("Last").build());
+        userIds = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            userIds.add(entityManager.persist(new User("user" + i + "@test.com", "Last", "First", "password", false)).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Dto with many participants to entity → one statement, order kept, unknown ids dropped")
+    public void testToEntity_largeDto_singleStatement() {
+        // Arrange
+        List<Long> requested = new ArrayList<>(userIds);
+        Collections.shuffle(requested, new Random(42));
+        requested.add(PARTICIPANTS / 2, UNKNOWN_USER_ID);
+        SessionDto sessionDto = new SessionDto(null, "session", new Date(), teacher.getId(), "description",
+                requested, null, null, null, null);
+        statistics.clear();
+
+        // Act
+        Session session = sessionMapper.toEntity(sessionDto);
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(session.getUsers().stream().map(User::getId).collect(Collectors.toList()))
+                .containsExactlyElementsOf(requested.stream().filter(id -> !id.equals(UNKNOWN_USER_ID)).collect(Collectors.toList()));
+        assertThat(Hibernate.isInitialized(session.getTeacher())).isFalse();
+        assertThat(session.getTeacher().getId()).isEqualTo(teacher.getId());
+    }
+}
@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,7 +31,7 @@ import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.services.TeacherService;
 import com.openclassrooms.starterjwt.services.UserService;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.flyway.enabled=false")
 @ExtendWith(MockitoExtension.class)
 public class SessionMapperTest {
 
@@ -58,7 +59,9 @@ public class SessionMapperTest {
                 "description",
                 List.of(1L),
                 LocalDateTime.now(),
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null,
+                null
         );
         teacher = Teacher.builder()
                 .id(1L)
@@ -81,8 +84,8 @@ public class SessionMapperTest {
                 .description("description")
                 .build();
 
-        when(teacherService.findById(1L)).thenReturn(teacher);
-        when(userService.findById(1L)).thenReturn(user);
+        when(teacherService.getReference(1L)).thenReturn(teacher);
+        when(userService.findAllById(List.of(1L))).thenReturn(List.of(user));
     }
 
     @Test
@@ -240,6 +243,22 @@ public class SessionMapperTest {
         assertEquals(session.getDescription(), result.get(0).getDescription());
     }
 
+    @Test
+    @DisplayName("To dto with batched participant ids -> users taken from the map")
+    public void testToDtoWithParticipantIds_success() {
+        // Arrange
+        Session other = Session.builder().id(2L).name("other").teacher(teacher).build();
+
+        // Act
+        List<SessionDto> result = sessionMapper.toDto(List.of(session, other), Map.of(1L, List.of(4L, 5L)));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(List.of(4L, 5L), result.get(0).getUsers());
+        assertEquals(teacher.getId(), result.get(0).getTeacher_id());
+        assertTrue(result.get(1).getUsers().isEmpty());
+    }
+
     @Test
     @DisplayName("To entity with empty list of sessions -> Empty list")
     public void testToEntity_EmptyList_emptyList() {
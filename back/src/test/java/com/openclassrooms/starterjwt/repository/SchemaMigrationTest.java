@@ -0,0 +1,137 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.StreamUtils;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Migrations → applied in order and admin seeded")
+    public void testMigrations_applied() {
+        List<String> versions = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .collect(Collectors.toList());
+
+        assertThat(versions).containsExactly("1", "2", "3", "4", "5", "5.1", "6", "7");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM USERS WHERE email = 'yoga@studio.com' AND admin = true", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Database created by the former script → baselined at 1, later migrations applied")
+    public void testMigrations_fromFormerScript() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        // H2 does not take the MySQL backquotes of the script
+        String script = StreamUtils.copyToString(
+                new ClassPathResource("db/legacy/script.sql").getInputStream(), StandardCharsets.UTF_8).replace("`", "");
+        new ResourceDatabasePopulator(new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8))).execute(dataSource);
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.update("INSERT INTO SESSIONS (name, description, date, teacher_id) VALUES ('Yoga', 'description', CURRENT_TIMESTAMP, 1)");
+        legacy.update("INSERT INTO PARTICIPATE (session_id, user_id) VALUES (1, 1)");
+        // the former table had no key: duplicate and incomplete rows hold no seat
+        legacy.update("INSERT INTO PARTICIPATE (session_id, user_id) VALUES (1, 1)");
+        legacy.update("INSERT INTO PARTICIPATE (session_id, user_id) VALUES (1, NULL)");
+
+        Flyway legacyFlyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        legacyFlyway.migrate();
+
+        assertThat(legacy.queryForObject("SELECT seats_taken FROM SESSIONS WHERE id = 1", Integer.class)).isEqualTo(1);
+        assertThat(legacy.queryForObject("SELECT COUNT(*) FROM PARTICIPATE WHERE session_id = 1", Integer.class)).isEqualTo(1);
+        assertThat(legacy.update("UPDATE SESSIONS SET capacity = 1 WHERE id = 1")).isEqualTo(1);
+        assertThat(legacy.queryForObject("SELECT COUNT(*) FROM WAITLIST", Integer.class)).isZero();
+        assertThat(legacyFlyway.info().current().getVersion().toString()).isEqualTo("7");
+    }
+
+    @Test
+    @DisplayName("Participation lookup by session and user → primary key")
+    public void testExplainParticipation_usesPrimaryKey() {
+        String plan = explain("SELECT user_id FROM PARTICIPATE WHERE session_id = 1 AND user_id = 1");
+
+        assertThat(plan).contains("PRIMARY_KEY");
+    }
+
+    @Test
+    @DisplayName("Sessions of a user → reverse participation index")
+    public void testExplainSessionsOfUser_usesReverseIndex() {
+        String plan = explain("SELECT session_id FROM PARTICIPATE WHERE user_id = 1");
+
+        assertThat(plan).contains("IDX_PARTICIPATE_USER_SESSION");
+    }
+
+    @Test
+    @DisplayName("Sessions ordered by date and id → date index, no sort")
+    public void testExplainSessionListing_usesDateIndex() {
+        String plan = explain("SELECT id, date FROM SESSIONS WHERE date >= TIMESTAMP '2024-01-01 00:00:00' ORDER BY date, id");
+
+        assertThat(plan).contains("IDX_SESSIONS_DATE_ID").contains("index sorted");
+    }
+
+    @Test
+    @DisplayName("Calendar of a teacher → teacher and date index")
+    public void testExplainTeacherCalendar_usesTeacherDateIndex() {
+        String plan = explain("SELECT id FROM SESSIONS WHERE teacher_id = 1 "
+                + "AND date >= TIMESTAMP '2024-01-01 00:00:00' AND date < TIMESTAMP '2024-01-08 00:00:00'");
+
+        assertThat(plan).contains("IDX_SESSIONS_TEACHER_DATE");
+    }
+
+    @Test
+    @DisplayName("Duplicate participation → rejected by the primary key")
+    public void testDuplicateParticipation_rejected() {
+        jdbcTemplate.update("INSERT INTO TEACHERS (first_name, last_name) VALUES ('First', 'Last')");
+        jdbcTemplate.update("INSERT INTO SESSIONS (id, name, description, date, teacher_id) "
+                + "SELECT 1, 'Yoga', 'description', CURRENT_TIMESTAMP, MAX(id) FROM TEACHERS");
+        jdbcTemplate.update("INSERT INTO PARTICIPATE (session_id, user_id) "
+                + "SELECT MAX(s.id), MAX(u.id) FROM SESSIONS s, USERS u");
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO PARTICIPATE (session_id, user_id) SELECT MAX(s.id), MAX(u.id) FROM SESSIONS s, USERS u"));
+    }
+
+    @Test
+    @DisplayName("Session inserted without id → rejected, ids only come from SESSION_SEQ")
+    public void testSessionWithoutId_rejected() {
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO SESSIONS (name, description, date, teacher_id) VALUES ('Yoga', 'description', CURRENT_TIMESTAMP, 1)"));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,260 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class SessionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    private Statistics statistics;
+
+    private List<Teacher> teachers;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        teachers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            teachers.add(entityManager.persist(Teacher.builder().firstName("First" + i).lastName("Last" + i).build()));
+        }
+
+        users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(entityManager.persist(new User("user" + i + "@test.com", "Last", "First", "password", false)));
+        }
+    }
+
+    @Test
+    @DisplayName("List sessions with participant ids → constant statement count")
+    public void testFindAllWithParticipants_constantStatementCount() {
+        createSessions(5);
+        long smallListing = countStatements(this::listWithParticipants);
+
+        createSessions(45);
+        long largeListing = countStatements(this::listWithParticipants);
+
+        assertThat(smallListing).isEqualTo(2);
+        assertThat(largeListing).isEqualTo(smallListing);
+    }
+
+    @Test
+    @DisplayName("Find participants → user ids grouped by session")
+    public void testFindParticipants_success() {
+        List<Session> sessions = createSessions(2);
+
+        List<SessionParticipant> participants = sessionRepository.findParticipants(
+                sessions.stream().map(Session::getId).collect(Collectors.toList()));
+
+        assertThat(participants).hasSize(sessions.get(0).getUsers().size() + sessions.get(1).getUsers().size());
+        assertThat(participants).allMatch(p -> p.getSessionId().equals(sessions.get(0).getId())
+                || p.getSessionId().equals(sessions.get(1).getId()));
+    }
+
+    @Test
+    @DisplayName("Find all summaries → one statement with participant counts")
+    public void testFindAllSummaries_singleStatement() {
+        List<Session> sessions = createSessions(20);
+
+        List<SessionSummaryDto> summaries = new ArrayList<>();
+        long statements = countStatements(() -> summaries.addAll(sessionRepository.findAllSummaries()));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(summaries).hasSize(20);
+        assertThat(summaries).allMatch(summary -> sessions.stream()
+                .anyMatch(s -> s.getId().equals(summary.getId()) && s.getUsers().size() == summary.getParticipantCount()));
+    }
+
+    @Test
+    @DisplayName("Add participant → one row inserted once, single statement")
+    public void testAddParticipant_insertIfAbsent() {
+        Session session = createSessions(1).get(0);
+        Long userId = users.get(0).getId();
+
+        long statements = countStatements(() -> assertThat(sessionRepository.addParticipant(session.getId(), userId)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(sessionRepository.addParticipant(session.getId(), userId)).isZero();
+        assertThat(sessionRepository.addParticipant(session.getId(), 999L)).isZero();
+        assertThat(sessionRepository.addParticipant(999L, userId)).isZero();
+        assertThat(sessionRepository.findParticipants(List.of(session.getId()))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Remove participant → deletes only the pair")
+    public void testRemoveParticipant_deleteByPair() {
+        List<Session> sessions = createSessions(3);
+        Session session = sessions.get(2);
+        Long userId = users.get(1).getId();
+
+        long statements = countStatements(() -> assertThat(sessionRepository.removeParticipant(session.getId(), userId)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(sessionRepository.removeParticipant(session.getId(), userId)).isZero();
+        assertThat(sessionRepository.findParticipants(List.of(session.getId())))
+                .extracting(SessionParticipant::getUserId)
+                .containsExactly(users.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Find sessions of a participant → date range, keyset order, single statement")
+    public void testFindByParticipant_rangeAndKeyset() {
+        User user = users.get(0);
+        List<Session> sessions = new ArrayList<>();
+        for (int day = 1; day <= 6; day++) {
+            List<User> participants = day % 3 == 0 ? new ArrayList<>() : new ArrayList<>(List.of(user));
+            sessions.add(entityManager.persist(Session.builder()
+                    .name("Day " + day)
+                    .date(new Date(day * 86_400_000L))
+                    .description("description")
+                    .teacher(teachers.get(0))
+                    .users(participants)
+                    .build()));
+        }
+        entityManager.flush();
+
+        List<Session> firstPage = new ArrayList<>();
+        long statements = countStatements(() -> firstPage.addAll(sessionRepository.findByParticipant(user.getId(),
+                new Date(2 * 86_400_000L), new Date(6 * 86_400_000L), PageRequest.of(0, 2)).getContent()));
+        Session last = firstPage.get(firstPage.size() - 1);
+        List<Session> secondPage = sessionRepository.findByParticipantAfter(user.getId(),
+                new Date(2 * 86_400_000L), new Date(6 * 86_400_000L), last.getDate(), last.getId(), PageRequest.of(0, 2)).getContent();
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(firstPage).extracting(Session::getName).containsExactly("Day 2", "Day 4");
+        assertThat(secondPage).extracting(Session::getName).containsExactly("Day 5");
+        assertThat(sessionRepository.findByParticipant(user.getId(), new Date(0), new Date(7 * 86_400_000L),
+                PageRequest.of(0, 10))).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Find calendar → range and teacher filter, one statement")
+    public void testFindCalendar_rangeAndTeacher() {
+        for (int day = 1; day <= 6; day++) {
+            entityManager.persist(Session.builder()
+                    .name("Day " + day)
+                    .date(new Date(day * 86_400_000L))
+                    .description("description")
+                    .teacher(teachers.get(day % 2))
+                    .users(new ArrayList<>(users.subList(0, day % users.size())))
+                    .build());
+        }
+        entityManager.flush();
+
+        List<SessionCalendarDto> week = new ArrayList<>();
+        long statements = countStatements(() -> week.addAll(sessionRepository.findCalendar(
+                new Date(2 * 86_400_000L), new Date(6 * 86_400_000L))));
+        List<SessionCalendarDto> teacherWeek = new ArrayList<>();
+        long teacherStatements = countStatements(() -> teacherWeek.addAll(sessionRepository.findCalendarByTeacher(
+                new Date(2 * 86_400_000L), new Date(6 * 86_400_000L), teachers.get(1).getId())));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(teacherStatements).isEqualTo(1);
+        assertThat(week).extracting(SessionCalendarDto::getName).containsExactly("Day 2", "Day 3", "Day 4", "Day 5");
+        assertThat(week).extracting(SessionCalendarDto::getParticipantCount).containsExactly(2, 3, 4, 0);
+        assertThat(week.get(0).getTeacherLastName()).isEqualTo(teachers.get(0).getLastName());
+        assertThat(teacherWeek).extracting(SessionCalendarDto::getName).containsExactly("Day 3", "Day 5");
+    }
+
+    @Test
+    @DisplayName("Patch the name → single statement, other fields and participants kept, version bumped")
+    public void testPatch_nameOnly() {
+        Session session = createSessions(4).get(3);
+
+        long statements = countStatements(() -> assertThat(sessionRepository.patch(session.getId(), 0L, "Renamed",
+                null, null, null, null)).isEqualTo(1));
+
+        Session patched = sessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(statements).isEqualTo(1);
+        assertThat(patched.getName()).isEqualTo("Renamed");
+        assertThat(patched.getDescription()).isEqualTo("description");
+        assertThat(patched.getTeacher().getId()).isEqualTo(session.getTeacher().getId());
+        assertThat(patched.getVersion()).isEqualTo(1L);
+        assertThat(patched.getUsers()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Patch with a stale version or a capacity below the seats taken → nothing updated")
+    public void testPatch_staleVersionOrCapacity_noRow() {
+        Session session = entityManager.persistFlushFind(Session.builder()
+                .name("Session")
+                .date(new Date())
+                .description("description")
+                .teacher(teachers.get(0))
+                .seatsTaken(2)
+                .build());
+        entityManager.clear();
+
+        assertThat(sessionRepository.patch(session.getId(), 1L, "Renamed", null, null, null, null)).isZero();
+        assertThat(sessionRepository.patch(session.getId(), 0L, null, null, null, null, 1)).isZero();
+        assertThat(sessionRepository.patch(session.getId(), 0L, null, null, teachers.get(1).getId(), null, 2)).isEqualTo(1);
+        Session patched = sessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(patched.getName()).isEqualTo("Session");
+        assertThat(patched.getCapacity()).isEqualTo(2);
+        assertThat(patched.getTeacher().getId()).isEqualTo(teachers.get(1).getId());
+    }
+
+    private void listWithParticipants() {
+        List<Session> sessions = sessionRepository.findAll();
+        sessions.forEach(session -> session.getTeacher().getLastName());
+        sessionRepository.findParticipants(sessions.stream().map(Session::getId).collect(Collectors.toList()));
+    }
+
+    private List<Session> createSessions(int count) {
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sessions.add(entityManager.persist(Session.builder()
+                    .name("Session " + i)
+                    .date(new Date())
+                    .description("description")
+                    .teacher(teachers.get(i % teachers.size()))
+                    .users(new ArrayList<>(users.subList(0, i % users.size())))
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return sessions;
+    }
+
+    private long countStatements(Runnable runnable) {
+        entityManager.clear();
+        statistics.clear();
+        runnable.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,126 @@
+package com.openclassrooms.starterjwt.security;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    public void tearDown() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Encode and match through the bounded pool → Delegates to BCrypt")
+    public void testEncodeAndMatches_delegates() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 1, meterRegistry);
+
+        // Act
+        String encoded = encoder.encode("password");
+
+        // Assert
+        assertThat(encoded).startsWith("$2a$04$");
+        assertThat(encoder.matches("password", encoded)).isTrue();
+        assertThat(encoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Hash while pool and queue are full → Service Unavailable with retry delay")
+    public void testMatches_saturated_serviceUnavailable() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingEncoder(started, release);
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1, 3, meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.matches("running", "x"));
+            started.await(5, TimeUnit.SECONDS);
+            callers.submit(() -> encoder.matches("queued", "x"));
+            while (encoder.getQueueSize() < 1) {
+                Thread.sleep(5);
+            }
+
+            // Act
+            ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                    () -> encoder.matches("rejected", "x"));
+
+            // Assert
+            assertThat(exception.getRetryAfterSeconds()).isEqualTo(3);
+            assertThat(encoder.getActiveCount()).isEqualTo(1);
+            assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("password.hashing.queued").gauge().value()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Delegate throws a runtime exception → Same exception is rethrown")
+    public void testEncode_delegateFails_rethrows() {
+        // Arrange
+        PasswordEncoder failing = new BlockingEncoder(null, null) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("boom");
+            }
+        };
+        encoder = new BoundedPasswordEncoder(failing, 1, 1, 1, meterRegistry);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> encoder.encode("password"));
+        assertThat(exception.getMessage()).isEqualTo("boom");
+    }
+
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
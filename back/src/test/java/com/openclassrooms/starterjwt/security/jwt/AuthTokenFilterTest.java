@@ -10,6 +10,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,12 +19,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
+
 @ExtendWith(MockitoExtension.class)
 public class AuthTokenFilterTest {
 
@@ -45,16 +51,44 @@ public class AuthTokenFilterTest {
     @Mock
     private UserDetails userDetails;
 
+    @Mock
+    private Claims claims;
+
     @InjectMocks
     private AuthTokenFilter authTokenFilter;
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
-    @DisplayName("doFilterInternal with valid token -> success")
+    @DisplayName("doFilterInternal with valid token -> principal built from claims without user lookup")
     public void testDoFilterInternal_WithValidToken_success() throws ServletException, IOException {
+        // given
+        UserDetailsImpl principal = UserDetailsImpl.builder().id(1L).username("username").admin(true).build();
+        when(request.getHeader("Authorization")).thenReturn("Bearer validToken");
+        when(jwtUtils.parseJwtToken("validToken")).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromJwtClaims(claims)).thenReturn(principal);
+
+        // when
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // then
+        verify(jwtUtils, times(1)).parseJwtToken("validToken");
+        verifyNoInteractions(userDetailsService);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(principal);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("doFilterInternal with token without user claims -> falls back to user lookup")
+    public void testDoFilterInternal_WithLegacyToken_loadsUser() throws ServletException, IOException {
         // given
         when(request.getHeader("Authorization")).thenReturn("Bearer validToken");
-        when(jwtUtils.validateJwtToken("validToken")).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken("validToken")).thenReturn("username");
+        when(jwtUtils.parseJwtToken("validToken")).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromJwtClaims(claims)).thenReturn(null);
+        when(claims.getSubject()).thenReturn("username");
         when(userDetailsService.loadUserByUsername("username")).thenReturn(userDetails);
 
         // when
@@ -71,7 +105,7 @@ public class AuthTokenFilterTest {
     public void testDoFilterInternal_WithException_filter() throws ServletException, IOException {
         // given
         when(request.getHeader("Authorization")).thenReturn("Bearer validToken");
-        when(jwtUtils.validateJwtToken("validToken")).thenThrow(new RuntimeException("Simulated exception"));
+        when(jwtUtils.parseJwtToken("validToken")).thenThrow(new RuntimeException("Simulated exception"));
 
         // when
         authTokenFilter.doFilterInternal(request, response, filterChain);
@@ -85,12 +119,13 @@ public class AuthTokenFilterTest {
     public void testDoFilterInternal_WithInvalidToken_filter() throws ServletException, IOException {
         // given
         when(request.getHeader("Authorization")).thenReturn("Bearer invalidToken");
-        when(jwtUtils.validateJwtToken("invalidToken")).thenReturn(false);
+        when(jwtUtils.parseJwtToken("invalidToken")).thenReturn(null);
 
         // when
         authTokenFilter.doFilterInternal(request, response, filterChain);
 
         // then
+        verifyNoInteractions(userDetailsService);
         verify(filterChain).doFilter(request, response);
     }
 
@@ -105,6 +140,7 @@ public class AuthTokenFilterTest {
 
         // then
         verify(jwtUtils, times(0)).validateJwtToken(any(String.class));
+        verify(jwtUtils, times(0)).parseJwtToken(any(String.class));
         verify(filterChain).doFilter(request, response);
     }
 
@@ -0,0 +1,100 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+class JwtClaimsCacheTest {
+
+    private JwtClaimsCache claimsCache;
+
+    @BeforeEach
+    void setUp() {
+        claimsCache = new JwtClaimsCache(2, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("get after put -> cached claims and hit recorded")
+    void testGet_afterPut_hit() {
+        String token = token("JohnDoe", 60000);
+        Claims claims = claims(token);
+
+        claimsCache.put(token, claims);
+
+        assertThat(claimsCache.get(token)).isSameAs(claims);
+        assertThat(claimsCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get unknown token -> null and miss recorded")
+    void testGet_unknownToken_miss() {
+        assertThat(claimsCache.get(token("JohnDoe", 60000))).isNull();
+        assertThat(claimsCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get with same signature but different payload -> null")
+    void testGet_tamperedPayload_null() {
+        String token = token("JohnDoe", 60000);
+        claimsCache.put(token, claims(token));
+        String signature = token.substring(token.lastIndexOf('.'));
+        String other = token("JaneDoe", 60000);
+        String tampered = other.substring(0, other.lastIndexOf('.')) + signature;
+
+        assertThat(claimsCache.get(tampered)).isNull();
+    }
+
+    @Test
+    @DisplayName("get expired token -> null")
+    void testGet_expiredToken_null() {
+        String token = token("JohnDoe", 60000);
+        Claims claims = claims(token);
+        claims.setExpiration(new Date(System.currentTimeMillis() - 1));
+
+        claimsCache.put(token, claims);
+
+        assertThat(claimsCache.get(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("put beyond capacity -> bounded size and evictions recorded")
+    void testPut_beyondCapacity_evicts() {
+        for (int i = 0; i < 5; i++) {
+            String token = token("user" + i, 60000);
+            claimsCache.put(token, claims(token));
+        }
+
+        assertThat(claimsCache.size()).isLessThanOrEqualTo(2);
+        assertThat(claimsCache.stats().evictionCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("get or put with null or unsigned token -> ignored")
+    void testNullOrUnsignedToken_ignored() {
+        assertThat(claimsCache.get(null)).isNull();
+
+        String unsigned = Jwts.builder().setSubject("JohnDoe").setExpiration(new Date(System.currentTimeMillis() + 60000)).compact();
+        claimsCache.put(unsigned, Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + 60000)));
+
+        assertThat(claimsCache.size()).isZero();
+    }
+
+    private String token(String subject, long validityMs) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + validityMs))
+                .signWith(SignatureAlgorithm.HS512, "openclassrooms")
+                .compact();
+    }
+
+    private Claims claims(String token) {
+        return Jwts.parser().setSigningKey("openclassrooms").parseClaimsJws(token).getBody();
+    }
+}
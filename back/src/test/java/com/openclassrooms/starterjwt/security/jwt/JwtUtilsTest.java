@@ -18,8 +18,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -31,6 +33,8 @@ class JwtUtilsTest {
     @Mock
     private Authentication authentication;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private final String jwtSecret = "openclassrooms";
     private final int expirationTime = 3600000;
 
@@ -39,10 +43,15 @@ class JwtUtilsTest {
         jwtUtils = new JwtUtils();
         ReflectionTestUtils.setField(jwtUtils, "jwtSecret", jwtSecret);
         ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationTime); // 1 hour
+        ReflectionTestUtils.setField(jwtUtils, "claimsCache", new JwtClaimsCache(100));
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", meterRegistry);
 
         UserDetailsImpl userDetails = UserDetailsImpl.builder()
                 .id(1L)
                 .username("JohnDoe")
+                .firstName("John")
+                .lastName("Doe")
+                .admin(true)
                 .password("password")
                 .build();
 
@@ -134,4 +143,69 @@ class JwtUtilsTest {
 
     }
 
+
+    @Test
+    @DisplayName("parseJwtToken with valid token -> claims with user details")
+    void testParseJwtToken_success() {
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        Claims claims = jwtUtils.parseJwtToken(token);
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromJwtClaims(claims);
+
+        assertThat(userDetails.getId()).isEqualTo(1L);
+        assertThat(userDetails.getUsername()).isEqualTo("JohnDoe");
+        assertThat(userDetails.getFirstName()).isEqualTo("John");
+        assertThat(userDetails.getLastName()).isEqualTo("Doe");
+        assertThat(userDetails.getAdmin()).isTrue();
+        assertThat(userDetails.getPassword()).isNull();
+    }
+
+    @Test
+    @DisplayName("parseJwtToken with invalid token -> null")
+    void testParseJwtToken_invalidToken_null() {
+        assertThat(jwtUtils.parseJwtToken("invalidToken")).isNull();
+    }
+
+    @Test
+    @DisplayName("getUserDetailsFromJwtClaims without id claim -> null")
+    void testGetUserDetailsFromJwtClaims_legacyToken_null() {
+        String token = Jwts.builder()
+                .setSubject("JohnDoe")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
+                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .compact();
+
+        assertThat(jwtUtils.getUserDetailsFromJwtClaims(jwtUtils.parseJwtToken(token))).isNull();
+    }
+
+    @Test
+    @DisplayName("parseJwtToken twice -> second call served from the claims cache")
+    void testParseJwtToken_cached() {
+        JwtClaimsCache claimsCache = new JwtClaimsCache(100, Runnable::run);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCache", claimsCache);
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        Claims first = jwtUtils.parseJwtToken(token);
+        Claims second = jwtUtils.parseJwtToken(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(claimsCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("issue then verify tokens -> timed, cache hits not counted as verifications")
+    void testJwtTimers() {
+        JwtClaimsCache claimsCache = new JwtClaimsCache(100, Runnable::run);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCache", claimsCache);
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        jwtUtils.parseJwtToken(token);
+        jwtUtils.parseJwtToken(token);
+        jwtUtils.parseJwtToken("invalidToken");
+
+        assertThat(meterRegistry.get("jwt.issue").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "valid").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "invalid").timer().count()).isEqualTo(1);
+    }
 }
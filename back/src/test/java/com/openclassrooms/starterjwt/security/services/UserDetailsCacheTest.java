@@ -0,0 +1,61 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UserDetailsCacheTest {
+
+    private UserDetailsCache userDetailsCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(100, 60000);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("get twice -> loaded once, hit and miss recorded")
+    public void testGet_loadedOnce() {
+        UserDetailsImpl first = userDetailsCache.get("john.doe@example.fr", this::load);
+        UserDetailsImpl second = userDetailsCache.get("john.doe@example.fr", this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(userDetailsCache.stats().hitCount()).isEqualTo(1);
+        assertThat(userDetailsCache.stats().missCount()).isEqualTo(1);
+        assertThat(userDetailsCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get after evict -> loaded again")
+    public void testGet_afterEvict_reloaded() {
+        userDetailsCache.get("john.doe@example.fr", this::load);
+
+        userDetailsCache.evict("john.doe@example.fr");
+        userDetailsCache.get("john.doe@example.fr", this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("get with zero ttl -> never served from cache")
+    public void testGet_expired_reloaded() {
+        userDetailsCache = new UserDetailsCache(100, 0);
+
+        userDetailsCache.get("john.doe@example.fr", this::load);
+        userDetailsCache.get("john.doe@example.fr", this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private UserDetailsImpl load(String email) {
+        loads.incrementAndGet();
+        return UserDetailsImpl.builder().id(1L).username(email).build();
+    }
+}
@@ -30,7 +30,7 @@ public class UserDetailsServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        userDetailsService = new UserDetailsServiceImpl(userRepository);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, new UserDetailsCache(100, 60000));
     }
 
     @Test
@@ -43,6 +43,7 @@ public class UserDetailsServiceImplTest {
         mockUser.setFirstName("John");
         mockUser.setLastName("Doe");
         mockUser.setPassword("password");
+        mockUser.setAdmin(true);
 
         when(userRepository.findByEmail("john.doe@example.fr")).thenReturn(Optional.of(mockUser));
 
@@ -53,6 +54,7 @@ public class UserDetailsServiceImplTest {
         assertNotNull(userDetails);
         assertThat(userDetails.getUsername()).isEqualTo("john.doe@example.fr");
         assertThat(userDetails.getPassword()).isEqualTo("password");
+        assertThat(((UserDetailsImpl) userDetails).getAdmin()).isTrue();
 
         verify(userRepository, times(1)).findByEmail("john.doe@example.fr");
     }
@@ -71,4 +73,21 @@ public class UserDetailsServiceImplTest {
 
         verify(userRepository, times(1)).findByEmail(username);
     }
+
+    @Test
+    @DisplayName("load user by username twice -> second load served from cache")
+    public void testLoadUserByUsername_cached() {
+        // Arrange
+        User mockUser = new User("john.doe@example.fr", "Doe", "John", "password", false);
+        mockUser.setId(1L);
+        when(userRepository.findByEmail("john.doe@example.fr")).thenReturn(Optional.of(mockUser));
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername("john.doe@example.fr");
+        UserDetails second = userDetailsService.loadUserByUsername("john.doe@example.fr");
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByEmail("john.doe@example.fr");
+    }
 }
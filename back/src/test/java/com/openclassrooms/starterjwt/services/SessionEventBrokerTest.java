@@ -0,0 +1,110 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SessionEventBrokerTest {
+
+    private final Queue<Runnable> dispatched = new ArrayDeque<>();
+
+    private SessionEventBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        // the dispatcher only runs when the test says so, which makes a client as slow as needed
+        broker = new SessionEventBroker(10, 2, 60000, 60000, 1000, dispatched::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.destroy();
+    }
+
+    @Test
+    @DisplayName("client within its buffer -> stays connected")
+    public void testPublish_withinBuffer_connected() {
+        // Arrange
+        broker.subscribe(null);
+
+        // Act
+        broker.publish(SessionEvent.of(SessionEventType.SESSION_CREATED, 1L));
+        broker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
+        runDispatcher();
+
+        // Assert
+        assertThat(broker.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("client overflowing its buffer -> disconnected, other clients kept")
+    public void testPublish_overflow_disconnected() {
+        // Arrange
+        broker.subscribe(null);
+        broker.publish(SessionEvent.of(SessionEventType.SESSION_CREATED, 1L));
+        broker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
+        broker.subscribe(null);
+
+        // Act
+        broker.publish(SessionEvent.of(SessionEventType.SESSION_DELETED, 1L));
+        runDispatcher();
+
+        // Assert
+        assertThat(broker.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("resume further back than the client buffer, within the ring buffer -> replayed, connected")
+    public void testSubscribe_resumeBeyondBuffer_connected() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            broker.publish(SessionEvent.of(SessionEventType.SESSION_UPDATED, id));
+        }
+
+        // Act
+        broker.subscribe(1L);
+        runDispatcher();
+
+        // Assert
+        assertThat(broker.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("resume with a negative id before any event -> reset, connected")
+    public void testSubscribe_negativeIdAtStartup_reset() {
+        // Act
+        broker.subscribe(-5L);
+        runDispatcher();
+
+        // Assert
+        assertThat(broker.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("write timeout elapsed without a write in progress -> idle clients kept")
+    public void testDisconnectStalled_idle_connected() {
+        // Arrange
+        broker.subscribe(null);
+        broker.publish(SessionEvent.of(SessionEventType.SESSION_CREATED, 1L));
+        runDispatcher();
+
+        // Act
+        broker.disconnectStalled(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+
+        // Assert
+        assertThat(broker.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private void runDispatcher() {
+        Runnable task;
+        while ((task = dispatched.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQL5InnoDBDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionAttendanceDto;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private TypedQuery<SessionAttendanceDto> query;
+
+    private SessionExportService sessionExportService;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final Date date = Date.from(Instant.parse("2026-01-05T09:30:00Z"));
+
+    @BeforeEach
+    public void setUp() {
+        when(entityManager.getEntityManagerFactory()).thenReturn(sessionFactory);
+        when(sessionFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getJdbcServices().getDialect()).thenReturn(new H2Dialect());
+        when(entityManager.createQuery(SessionExportService.ATTENDANCE_QUERY, SessionAttendanceDto.class)).thenReturn(query);
+        sessionExportService = new SessionExportService(entityManager, new ObjectMapper(), 600000);
+    }
+
+    private void rows(SessionAttendanceDto... rows) {
+        when(query.getResultStream()).thenReturn(Stream.of(rows).onClose(() -> closed.set(true)));
+    }
+
+    @Test
+    @DisplayName("export as CSV -> header, escaped fields, empty user columns, stream closed")
+    public void testExport_csv() throws Exception {
+        // Arrange
+        rows(new SessionAttendanceDto(1L, "Yoga, \"flow\"", date, 2L, 3L, "john@test.com", "Doe", "John"),
+                new SessionAttendanceDto(4L, "Empty", date, 2L, null, null, null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = sessionExportService.export(SessionExportFormat.CSV, out);
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(SessionExportService.CSV_HEADER + "\n"
+                + "1,\"Yoga, \"\"flow\"\"\",2026-01-05T09:30:00Z,2,3,john@test.com,Doe,John\n"
+                + "4,Empty,2026-01-05T09:30:00Z,2,,,,\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("export as NDJSON -> one JSON object per line, stream closed")
+    public void testExport_ndjson() throws Exception {
+        // Arrange
+        rows(new SessionAttendanceDto(1L, "Yoga, \"flow\"", date, 2L, 3L, "john@test.com", "Doe", "John"),
+                new SessionAttendanceDto(4L, "Empty", date, 2L, null, null, null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = sessionExportService.export(SessionExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(new ObjectMapper().readValue(lines[0], SessionAttendanceDto.class).getUserEmail()).isEqualTo("john@test.com");
+        assertThat(new ObjectMapper().readValue(lines[1], SessionAttendanceDto.class).getUserId()).isNull();
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("}\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("export as CSV with formula-like user input -> quoted as text")
+    public void testExport_csvFormula_neutralized() throws Exception {
+        // Arrange
+        rows(new SessionAttendanceDto(1L, "=HYPERLINK(\"http://x\")", date, 2L, 3L, "@evil.com", "+Doe", "-John"),
+                new SessionAttendanceDto(4L, "\tTab", date, 2L, 5L, "jane@test.com", "Doe-Smith", "Jane"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        sessionExportService.export(SessionExportFormat.CSV, out);
+
+        // Assert
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(SessionExportService.CSV_HEADER + "\n"
+                + "1,\"'=HYPERLINK(\"\"http://x\"\")\",2026-01-05T09:30:00Z,2,3,'@evil.com,'+Doe,'-John\n"
+                + "4,'\tTab,2026-01-05T09:30:00Z,2,5,jane@test.com,Doe-Smith,Jane\n");
+    }
+
+    @Test
+    @DisplayName("export -> batch fetch size on other databases")
+    public void testExport_fetchSize() throws Exception {
+        // Arrange
+        rows();
+
+        // Act
+        sessionExportService.export(SessionExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        // Assert
+        verify(query).setHint(QueryHints.HINT_FETCH_SIZE, SessionExportService.FETCH_SIZE);
+        verify(query).setHint(QueryHints.HINT_READONLY, true);
+    }
+
+    @Test
+    @DisplayName("export on MySQL -> Connector/J streaming fetch size on the export query")
+    public void testExport_mysql_streamingFetchSize() throws Exception {
+        // Arrange
+        when(sessionFactory.getJdbcServices().getDialect()).thenReturn(new MySQL5InnoDBDialect());
+        sessionExportService = new SessionExportService(entityManager, new ObjectMapper(), 600000);
+        rows();
+
+        // Act
+        sessionExportService.export(SessionExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        // Assert
+        verify(query).setHint(QueryHints.HINT_FETCH_SIZE, Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,141 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.mapper.SessionMapperImpl;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SessionService.class, SessionTemplateService.class, SessionMapperImpl.class, TeacherService.class, UserService.class, UserDetailsCache.class})
+public class SessionServiceBatchTest {
+
+    private static final int SESSIONS = 120;
+
+    private static final int EXISTING_SESSIONS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SessionMapper sessionMapper;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private Statistics statistics;
+
+    private Teacher teacher;
+
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        teacher = entityManager.persist(Teacher.builder().firstName("First").lastName("Last").build());
+        userIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            userIds.add(entityManager.persist(new User("batch" + i + "@test.com", "Last", "First", "password", false)).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Save a batch of new sessions → inserts sent in JDBC batches, ids assigned in order")
+    public void testSaveAll_newSessions_batchedInserts() {
+        // Arrange
+        List<SessionDto> sessionDtos = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessionDtos.add(sessionDto(null, "session " + i));
+        }
+        statistics.clear();
+
+        // Act
+        List<Session> sessions = sessionService.saveAll(sessionMapper.toEntity(sessionDtos));
+
+        // Assert
+        // the user lookup plus one statement per batched insert, reused across batches; row by row inserts
+        // would prepare one statement per session and per participant. Id blocks use their own connection.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(sessions).extracting(Session::getName)
+                .containsExactlyElementsOf(sessionDtos.stream().map(SessionDto::getName).collect(Collectors.toList()));
+        assertThat(sessions).extracting(Session::getId).doesNotContainNull().doesNotHaveDuplicates();
+        entityManager.clear();
+        assertThat(entityManager.find(Session.class, sessions.get(SESSIONS - 1).getId()).getUsers())
+                .extracting(User::getId).containsExactlyInAnyOrderElementsOf(userIds);
+    }
+
+    @Test
+    @DisplayName("Save a batch updating existing sessions → one load for all of them, updates batched, participants kept")
+    public void testSaveAll_existingSessions_singleLoad() {
+        // Arrange
+        List<SessionDto> sessionDtos = new ArrayList<>();
+        for (int i = 0; i < EXISTING_SESSIONS; i++) {
+            Session existing = entityManager.persist(Session.builder().name("old " + i).date(new Date())
+                    .description("description").teacher(teacher).users(new ArrayList<>()).build());
+            sessionDtos.add(sessionDto(existing.getId(), "renamed " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        sessionService.saveAll(sessionMapper.toEntity(sessionDtos));
+
+        // Assert
+        // user lookup, locked sessions, then the batched update; participants are not rewritten
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        entityManager.clear();
+        Session renamed = entityManager.find(Session.class, sessionDtos.get(0).getId());
+        assertThat(renamed.getName()).isEqualTo("renamed 0");
+        assertThat(renamed.getUsers()).isEmpty();
+        assertThat(renamed.getSeatsTaken()).isZero();
+    }
+
+    @Test
+    @DisplayName("Save a batch updating an unknown session → Not found, nothing written")
+    public void testSaveAll_unknownSession_notFound() {
+        // Arrange
+        List<SessionDto> sessionDtos = List.of(sessionDto(null, "new"), sessionDto(999_999L, "unknown"));
+
+        // Act & Assert
+        List<Session> sessions = sessionMapper.toEntity(sessionDtos);
+        assertThrows(NotFoundException.class, () -> sessionService.saveAll(sessions));
+        assertThat(entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(s) FROM Session s WHERE s.name = 'new'", Long.class).getSingleResult()).isZero();
+    }
+
+    private SessionDto sessionDto(Long id, String name) {
+        return new SessionDto(id, name, new Date(), teacher.getId(), "description", userIds, null, null, null, null);
+    }
+}
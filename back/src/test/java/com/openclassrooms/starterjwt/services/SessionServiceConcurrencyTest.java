@@ -0,0 +1,244 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import com.openclassrooms.starterjwt.payload.request.SessionPatchRequest;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:participation;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SessionService.class, SessionTemplateService.class})
+public class SessionServiceConcurrencyTest {
+
+    private static final int CAPACITY = 50;
+    private static final int USERS = 300;
+    private static final int DUPLICATE_REQUESTS = 100;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    private Session session;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        session = sessionRepository.save(Session.builder()
+                .name("Popular class")
+                .date(new Date())
+                .description("description")
+                .capacity(CAPACITY)
+                .users(new ArrayList<>())
+                .build());
+
+        users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(new User("stress" + i + "-" + session.getId() + "@test.com", "Last", "First", "password", false)));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent participate → no overbooking, every other request waitlisted or rejected")
+    public void testConcurrentParticipate_noOverbooking() throws Exception {
+        Map<ParticipationStatus, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Long> requests = new ArrayList<>();
+        users.forEach(user -> requests.add(user.getId()));
+        users.subList(0, DUPLICATE_REQUESTS).forEach(user -> requests.add(user.getId()));
+        Collections.shuffle(requests);
+
+        runConcurrently(requests.stream().map(userId -> (Callable<Void>) () -> {
+            try {
+                ParticipationStatus status = sessionService.participate(session.getId(), userId);
+                outcomes.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+            } catch (RuntimeException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        }).collect(Collectors.toList()));
+
+        List<Long> participants = participantIds();
+        assertThat(participants).hasSize(CAPACITY).doesNotHaveDuplicates();
+        assertThat(sessionRepository.findById(session.getId()).get().getSeatsTaken()).isEqualTo(CAPACITY);
+        assertThat(waitlistRepository.countBySessionId(session.getId())).isEqualTo(USERS - CAPACITY);
+        assertThat(outcomes.get(ParticipationStatus.PARTICIPATING).get()).isEqualTo(CAPACITY);
+        assertThat(outcomes.get(ParticipationStatus.WAITLISTED).get()).isEqualTo(USERS - CAPACITY);
+        assertThat(rejected.get()).isEqualTo(DUPLICATE_REQUESTS);
+    }
+
+    @Test
+    @DisplayName("Concurrent leave → seats handed to the waitlist in order")
+    public void testConcurrentLeave_promotesWaitlistInOrder() throws Exception {
+        users.forEach(user -> sessionService.participate(session.getId(), user.getId()));
+        List<Long> leaving = participantIds().subList(0, 20);
+        List<Long> expectedPromoted = waitlistRepository.findAll().stream()
+                .filter(entry -> entry.getSessionId().equals(session.getId()))
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .limit(leaving.size())
+                .map(WaitlistEntry::getUserId)
+                .collect(Collectors.toList());
+
+        runConcurrently(leaving.stream().map(userId -> (Callable<Void>) () -> {
+            sessionService.noLongerParticipate(session.getId(), userId);
+            return null;
+        }).collect(Collectors.toList()));
+
+        List<Long> participants = participantIds();
+        assertThat(participants).hasSize(CAPACITY).doesNotHaveDuplicates();
+        assertThat(participants).containsAll(expectedPromoted).doesNotContainAnyElementsOf(leaving);
+        assertThat(sessionRepository.findById(session.getId()).get().getSeatsTaken()).isEqualTo(CAPACITY);
+        assertThat(waitlistRepository.countBySessionId(session.getId())).isEqualTo(USERS - CAPACITY - leaving.size());
+    }
+
+    @Test
+    @DisplayName("Update raising the capacity → waitlisted users take the added seats, in order")
+    public void testUpdate_capacityRaised_promotesWaitlist() {
+        users.subList(0, CAPACITY + 20).forEach(user -> sessionService.participate(session.getId(), user.getId()));
+        List<Long> expectedPromoted = users.subList(CAPACITY, CAPACITY + 10).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+
+        sessionService.update(session.getId(), Session.builder()
+                .name("Popular class")
+                .date(session.getDate())
+                .description("description")
+                .capacity(CAPACITY + 10)
+                .build());
+
+        List<Long> participants = participantIds();
+        assertThat(participants).hasSize(CAPACITY + 10).containsAll(expectedPromoted);
+        assertThat(sessionRepository.findById(session.getId()).get().getSeatsTaken()).isEqualTo(CAPACITY + 10);
+        assertThat(waitlistRepository.countBySessionId(session.getId())).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Patch raising the capacity → waitlisted users take the added seats, in order")
+    public void testPatch_capacityRaised_promotesWaitlist() {
+        users.subList(0, CAPACITY + 20).forEach(user -> sessionService.participate(session.getId(), user.getId()));
+        List<Long> expectedPromoted = users.subList(CAPACITY, CAPACITY + 10).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        Long version = sessionRepository.findById(session.getId()).get().getVersion();
+
+        Session patched = sessionService.patch(session.getId(),
+                new SessionPatchRequest(null, null, null, null, CAPACITY + 10, version));
+
+        List<Long> participants = participantIds();
+        assertThat(participants).hasSize(CAPACITY + 10).containsAll(expectedPromoted);
+        assertThat(patched.getSeatsTaken()).isEqualTo(CAPACITY + 10);
+        assertThat(waitlistRepository.countBySessionId(session.getId())).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Join between the read and a PUT with the read version → update applied, join kept")
+    public void testUpdate_afterConcurrentJoin_joinKept() {
+        Session read = sessionRepository.findById(session.getId()).get();
+
+        sessionService.participate(session.getId(), users.get(0).getId());
+        sessionService.update(session.getId(), Session.builder()
+                .name("Renamed class")
+                .date(read.getDate())
+                .description(read.getDescription())
+                .capacity(read.getCapacity())
+                .users(new ArrayList<>())
+                .version(read.getVersion())
+                .build());
+
+        Session updated = sessionRepository.findById(session.getId()).get();
+        assertThat(updated.getName()).isEqualTo("Renamed class");
+        assertThat(updated.getVersion()).isEqualTo(read.getVersion() + 1);
+        assertThat(updated.getSeatsTaken()).isEqualTo(1);
+        assertThat(participantIds()).containsExactly(users.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Edit between the read and a PUT with the read version → conflict, edit kept")
+    public void testUpdate_afterConcurrentEdit_conflict() {
+        Session read = sessionRepository.findById(session.getId()).get();
+        sessionService.patch(session.getId(), new SessionPatchRequest("Edited class", null, null, null, null, read.getVersion()));
+
+        assertThatThrownBy(() -> sessionService.update(session.getId(), Session.builder()
+                .name("Renamed class")
+                .date(read.getDate())
+                .description(read.getDescription())
+                .version(read.getVersion())
+                .build()))
+                .isInstanceOf(ConflictException.class);
+        assertThat(sessionRepository.findById(session.getId()).get().getName()).isEqualTo("Edited class");
+    }
+
+    private List<Long> participantIds() {
+        return sessionRepository.findParticipants(List.of(session.getId())).stream()
+                .map(participant -> participant.getUserId())
+                .collect(Collectors.toList());
+    }
+
+    private void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -6,8 +6,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import javax.persistence.EntityNotFoundException;
+
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -21,19 +24,36 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.WaitlistEntry;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.request.SessionPatchRequest;
+import com.openclassrooms.starterjwt.repository.SessionParticipant;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class SessionServiceTest {
@@ -44,6 +64,15 @@ public class SessionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private SessionTemplateService sessionTemplateService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private SessionService sessionService;
 
     private Session session;
@@ -79,7 +108,7 @@ public class SessionServiceTest {
                 .updatedAt(null)
                 .build();
 
-        sessionService = new SessionService(sessionRepository, userRepository);
+        sessionService = new SessionService(sessionRepository, userRepository, waitlistRepository, sessionTemplateService, eventPublisher);
     }
 
     @AfterEach
@@ -98,9 +127,21 @@ public class SessionServiceTest {
 
         // Assert
         verify(sessionRepository, times(1)).save(any(Session.class));
+        verify(eventPublisher, times(1)).publishEvent(SessionEvent.of(SessionEventType.SESSION_CREATED, 1L));
         assertEquals(savedSession, session);
     }
 
+    @Test
+    @DisplayName("create session with unknown teacher -> bad request")
+    public void testCreateSession_unknownTeacher_badRequest() {
+        // Arrange
+        when(sessionRepository.save(any(Session.class))).thenThrow(new DataIntegrityViolationException("teacher_id"));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.create(new Session()));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     @DisplayName("delete session -> success")
     public void testDeleteSession_success() {
@@ -108,7 +149,51 @@ public class SessionServiceTest {
         sessionService.delete(session.getId());
 
         // Assert
+        verify(waitlistRepository, times(1)).removeAllEntries(session.getId());
         verify(sessionRepository, times(1)).deleteById(session.getId());
+        verify(eventPublisher, times(1)).publishEvent(SessionEvent.of(SessionEventType.SESSION_DELETED, 1L));
+    }
+
+    @Test
+    @DisplayName("delete stored occurrence of a template -> its day excluded from the template")
+    public void testDeleteSession_occurrence_excluded() {
+        // Arrange
+        session.setTemplate(SessionTemplate.builder().id(9L).build());
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.delete(1L);
+
+        // Assert
+        verify(sessionTemplateService, times(1)).excludeOccurrence(9L, session.getDate());
+        verify(sessionRepository, times(1)).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("create session -> seats taken counted from participants")
+    public void testCreateSession_countsSeats() {
+        // Arrange
+        session.getUsers().add(user);
+        when(sessionRepository.save(session)).thenReturn(session);
+
+        // Act
+        sessionService.create(session);
+
+        // Assert
+        assertEquals(1, session.getSeatsTaken());
+    }
+
+    @Test
+    @DisplayName("update session capacity below the seats taken -> bad request")
+    public void testUpdateSession_overCapacity_badRequest() {
+        // Arrange
+        session.setSeatsTaken(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        Session update = Session.builder().name("Session").capacity(0).build();
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.update(1L, update));
+        verify(sessionRepository, never()).flush();
     }
 
     @Test
@@ -141,6 +226,222 @@ public class SessionServiceTest {
         assertTrue(sessions.isEmpty());
     }
 
+    @Test
+    @DisplayName("find participant ids -> grouped by session")
+    public void testFindParticipantIds_groupedBySession() {
+        // Arrange
+        Session other = Session.builder().id(2L).build();
+        when(sessionRepository.findParticipants(List.of(1L, 2L))).thenReturn(List.of(
+                participant(1L, 1L), participant(1L, 3L), participant(2L, 3L)));
+
+        // Act
+        Map<Long, List<Long>> participantIds = sessionService.findParticipantIds(List.of(session, other));
+
+        // Assert
+        assertEquals(List.of(1L, 3L), participantIds.get(1L));
+        assertEquals(List.of(3L), participantIds.get(2L));
+    }
+
+    @Test
+    @DisplayName("find participant ids without sessions -> no query")
+    public void testFindParticipantIds_emptyList_noQuery() {
+        assertTrue(sessionService.findParticipantIds(Collections.emptyList()).isEmpty());
+
+        verify(sessionRepository, never()).findParticipants(any());
+    }
+
+    @Test
+    @DisplayName("find all summaries -> success")
+    public void testFindAllSummaries_success() {
+        // Arrange
+        List<SessionSummaryDto> summaries = List.of(new SessionSummaryDto(1L, "Session", new Date(), 1L, "description", 0, null, null));
+        when(sessionRepository.findAllSummaries()).thenReturn(summaries);
+
+        // Act & Assert
+        assertEquals(summaries, sessionService.findAllSummaries());
+    }
+
+    @Test
+    @DisplayName("find page -> success")
+    public void testFindPage_success() {
+        // Arrange
+        when(sessionRepository.findAllByOrderByDateAscIdAsc(PageRequest.of(2, 10))).thenReturn(new SliceImpl<>(List.of(session)));
+
+        // Act
+        Slice<Session> sessions = sessionService.findPage(2, 10);
+
+        // Assert
+        assertEquals(List.of(session), sessions.getContent());
+    }
+
+    @Test
+    @DisplayName("find page with invalid page or size -> bad request")
+    public void testFindPage_invalidArguments_badRequest() {
+        assertThrows(BadRequestException.class, () -> sessionService.findPage(-1, 10));
+        assertThrows(BadRequestException.class, () -> sessionService.findPage(0, 0));
+        assertThrows(BadRequestException.class, () -> sessionService.findPage(0, SessionService.MAX_PAGE_SIZE + 1));
+
+        verify(sessionRepository, never()).findAllByOrderByDateAscIdAsc(any());
+    }
+
+    @Test
+    @DisplayName("find after without cursor -> first page")
+    public void testFindAfter_noCursor_firstPage() {
+        // Arrange
+        when(sessionRepository.findAllByOrderByDateAscIdAsc(PageRequest.of(0, 10))).thenReturn(new SliceImpl<>(List.of(session)));
+
+        // Act
+        Slice<Session> sessions = sessionService.findAfter(null, 10);
+
+        // Assert
+        assertEquals(List.of(session), sessions.getContent());
+        verify(sessionRepository, never()).findAfter(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("find after cursor -> keyset query")
+    public void testFindAfter_cursor_keysetQuery() {
+        // Arrange
+        SessionCursor cursor = SessionCursor.of(session);
+        when(sessionRepository.findAfter(session.getDate(), session.getId(), PageRequest.of(0, 10))).thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        Slice<Session> sessions = sessionService.findAfter(cursor, 10);
+
+        // Assert
+        assertTrue(sessions.getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("find page by participant -> date range forwarded")
+    public void testFindPageByParticipant_success() {
+        // Arrange
+        Date from = new Date(0);
+        Date to = new Date();
+        when(sessionRepository.findByParticipant(1L, from, to, PageRequest.of(1, 10))).thenReturn(new SliceImpl<>(List.of(session)));
+
+        // Act
+        Slice<Session> sessions = sessionService.findPageByParticipant(1L, from, to, 1, 10);
+
+        // Assert
+        assertEquals(List.of(session), sessions.getContent());
+    }
+
+    @Test
+    @DisplayName("find by participant without range -> open-ended bounds bound")
+    public void testFindByParticipant_noRange_openEndedBounds() {
+        // Arrange
+        Date earliest = new Date(0);
+        Date latest = new Date(SessionService.LATEST_DATE_MS);
+        SessionCursor cursor = SessionCursor.of(session);
+        when(sessionRepository.findByParticipant(1L, earliest, latest, PageRequest.of(1, 10)))
+                .thenReturn(new SliceImpl<>(List.of(session)));
+        when(sessionRepository.findByParticipantAfter(1L, earliest, latest, session.getDate(), session.getId(), PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        Slice<Session> page = sessionService.findPageByParticipant(1L, null, null, 1, 10);
+        Slice<Session> next = sessionService.findByParticipantAfter(1L, null, null, cursor, 10);
+
+        // Assert
+        assertEquals(List.of(session), page.getContent());
+        assertTrue(next.getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("find page by participant with invalid page -> bad request")
+    public void testFindPageByParticipant_invalidPage_badRequest() {
+        assertThrows(BadRequestException.class, () -> sessionService.findPageByParticipant(1L, null, null, -1, 10));
+        assertThrows(BadRequestException.class, () -> sessionService.findByParticipantAfter(1L, null, null, null, 0));
+
+        verify(sessionRepository, never()).findByParticipant(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("find by participant after cursor -> keyset query")
+    public void testFindByParticipantAfter_cursor_keysetQuery() {
+        // Arrange
+        SessionCursor cursor = SessionCursor.of(session);
+        Date from = new Date(0);
+        Date to = new Date();
+        when(sessionRepository.findByParticipantAfter(1L, from, to, session.getDate(), session.getId(), PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        Slice<Session> sessions = sessionService.findByParticipantAfter(1L, from, to, cursor, 10);
+
+        // Assert
+        assertTrue(sessions.getContent().isEmpty());
+        verify(sessionRepository, never()).findByParticipant(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("find calendar -> rows for the range")
+    public void testFindCalendar_success() {
+        // Arrange
+        Date from = new Date(0);
+        Date to = new Date(7L * 24 * 60 * 60 * 1000);
+        List<SessionCalendarDto> rows = List.of(new SessionCalendarDto(1L, "Yoga", new Date(1000), 2L, "Margot", "DELAHAYE", 4, null));
+        when(sessionRepository.findCalendarByTeacher(from, to, 2L)).thenReturn(rows);
+
+        // Act
+        List<SessionCalendarDto> calendar = sessionService.findCalendar(from, to, 2L);
+
+        // Assert
+        assertEquals(rows, calendar);
+        verify(sessionRepository, never()).findCalendar(any(), any());
+    }
+
+    @Test
+    @DisplayName("find calendar without teacher -> unfiltered query")
+    public void testFindCalendar_allTeachers() {
+        // Arrange
+        Date from = new Date(0);
+        Date to = new Date(7L * 24 * 60 * 60 * 1000);
+        List<SessionCalendarDto> rows = List.of(new SessionCalendarDto(1L, "Yoga", new Date(1000), 2L, "Margot", "DELAHAYE", 4, null));
+        when(sessionRepository.findCalendar(from, to)).thenReturn(rows);
+
+        // Act
+        List<SessionCalendarDto> calendar = sessionService.findCalendar(from, to, null);
+
+        // Assert
+        assertEquals(rows, calendar);
+        verify(sessionRepository, never()).findCalendarByTeacher(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("find calendar with recurring sessions -> stored occurrences listed once, merged by date")
+    public void testFindCalendar_withOccurrences_merged() {
+        // Arrange
+        Date from = new Date(0);
+        Date to = new Date(7L * 24 * 60 * 60 * 1000);
+        SessionCalendarDto single = new SessionCalendarDto(1L, "Yoga", new Date(5000), 2L, "Margot", "DELAHAYE", 4, null);
+        SessionCalendarDto stored = new SessionCalendarDto(2L, "Weekly", new Date(1000), 2L, "Margot", "DELAHAYE", 1, 9L);
+        SessionCalendarDto storedOccurrence = new SessionCalendarDto(null, "Weekly", new Date(1000), 2L, "Margot", "DELAHAYE", 0, 9L);
+        SessionCalendarDto nextOccurrence = new SessionCalendarDto(null, "Weekly", new Date(3000), 2L, "Margot", "DELAHAYE", 0, 9L);
+        when(sessionRepository.findCalendarByTeacher(from, to, 2L)).thenReturn(List.of(stored, single));
+        when(sessionTemplateService.findOccurrences(from, to, 2L)).thenReturn(List.of(storedOccurrence, nextOccurrence));
+
+        // Act
+        List<SessionCalendarDto> calendar = sessionService.findCalendar(from, to, 2L);
+
+        // Assert
+        assertEquals(List.of(stored, nextOccurrence, single), calendar);
+    }
+
+    @Test
+    @DisplayName("find calendar with empty or oversized range -> bad request")
+    public void testFindCalendar_invalidRange_badRequest() {
+        Date from = new Date(0);
+
+        assertThrows(BadRequestException.class, () -> sessionService.findCalendar(from, from, null));
+        assertThrows(BadRequestException.class, () -> sessionService.findCalendar(from,
+                new Date(SessionService.MAX_CALENDAR_RANGE_MS + 1), null));
+
+        verify(sessionRepository, never()).findCalendar(any(), any());
+        verify(sessionRepository, never()).findCalendarByTeacher(any(), any(), any());
+    }
+
     @Test
     @DisplayName("find by id -> success")
     public void testFindById_success() {
@@ -171,97 +472,451 @@ public class SessionServiceTest {
     @DisplayName("update -> success")
     public void testUpdateSession_success() {
         // Arrange
-        when(sessionRepository.save(any(Session.class))).thenReturn(session);
+        session.setVersion(3L);
+        Session update = Session.builder().name("Renamed").description("new description").build();
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
 
         // Act
-        Session updatedSession = sessionService.update(session.getId(), new Session());
+        Session updatedSession = sessionService.update(session.getId(), update);
 
         // Assert
-        verify(sessionRepository, times(1)).save(any(Session.class));
+        verify(sessionRepository, times(1)).flush();
+        verify(sessionRepository, never()).save(any(Session.class));
+        verify(eventPublisher, times(1)).publishEvent(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
         assertNotNull(updatedSession);
-        assertEquals(updatedSession.getId(), session.getId());
+        assertEquals(session.getId(), updatedSession.getId());
+        assertEquals(3L, updatedSession.getVersion());
+        assertEquals("Renamed", updatedSession.getName());
+        assertEquals("new description", updatedSession.getDescription());
+    }
+
+    @Test
+    @DisplayName("update -> participants and seats taken left to joins and leaves")
+    public void testUpdateSession_participantsUnchanged() {
+        // Arrange
+        session.getUsers().add(user);
+        session.setSeatsTaken(1);
+        Session update = Session.builder().name("Session").users(new ArrayList<>()).build();
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        Session updatedSession = sessionService.update(1L, update);
+
+        // Assert
+        assertEquals(List.of(user), updatedSession.getUsers());
+        assertEquals(1, updatedSession.getSeatsTaken());
+    }
+
+    @Test
+    @DisplayName("update raising the capacity -> waitlisted users promoted to the added seats")
+    public void testUpdateSession_capacityRaised_promotesWaitlist() {
+        // Arrange
+        session.setCapacity(1).setSeatsTaken(1);
+        WaitlistEntry first = WaitlistEntry.builder().id(7L).sessionId(1L).userId(2L).build();
+        WaitlistEntry second = WaitlistEntry.builder().id(8L).sessionId(1L).userId(3L).build();
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(first), Optional.of(second));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 2L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 3L)).thenReturn(1);
+
+        // Act
+        sessionService.update(1L, Session.builder().name("Session").capacity(3).build());
+
+        // Assert
+        verify(sessionRepository, times(2)).reserveSeat(1L);
+        verify(waitlistRepository, times(1)).delete(first);
+        verify(waitlistRepository, times(1)).delete(second);
+        verify(eventPublisher, times(1)).publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, 1L, 2L));
+        verify(eventPublisher, times(1)).publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, 1L, 3L));
+    }
+
+    @Test
+    @DisplayName("update moving a stored occurrence of a template -> former day excluded from the template")
+    public void testUpdateSession_occurrenceMoved_excluded() {
+        // Arrange
+        Date former = session.getDate();
+        session.setTemplate(SessionTemplate.builder().id(9L).build());
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        Date moved = new Date(former.getTime() + 86_400_000L);
+
+        // Act
+        sessionService.update(1L, Session.builder().name("Session").date(moved).build());
+
+        // Assert
+        verify(sessionTemplateService, times(1)).excludeOccurrence(9L, former);
+        assertEquals(moved, session.getDate());
+    }
+
+    @Test
+    @DisplayName("update keeping the date of a stored occurrence -> template untouched")
+    public void testUpdateSession_occurrenceKept_notExcluded() {
+        // Arrange
+        session.setTemplate(SessionTemplate.builder().id(9L).build());
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.update(1L, Session.builder().name("Renamed").date(new Date(session.getDate().getTime())).build());
+
+        // Assert
+        verify(sessionTemplateService, never()).excludeOccurrence(any(), any());
+    }
+
+    @Test
+    @DisplayName("update keeping the capacity -> waitlist untouched")
+    public void testUpdateSession_capacityKept_waitlistUntouched() {
+        // Arrange
+        session.setCapacity(1).setSeatsTaken(1);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.update(1L, Session.builder().name("Session").capacity(1).build());
+
+        // Assert
+        verify(waitlistRepository, never()).findFirstBySessionIdOrderByIdAsc(any());
+        verify(sessionRepository, never()).reserveSeat(any());
+    }
+
+    @Test
+    @DisplayName("update with a stale version -> conflict")
+    public void testUpdateSession_staleVersion_conflict() {
+        // Arrange
+        session.setVersion(3L);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> sessionService.update(1L, Session.builder().version(2L).build()));
+        verify(sessionRepository, never()).flush();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("update failing the version check at flush -> conflict")
+    public void testUpdateSession_lockFailure_conflict() {
+        // Arrange
+        session.setVersion(2L);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        doThrow(new ObjectOptimisticLockingFailureException(Session.class, 1L)).when(sessionRepository).flush();
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> sessionService.update(1L, Session.builder().version(2L).build()));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("update with unknown teacher -> bad request")
+    public void testUpdateSession_unknownTeacher_badRequest() {
+        // Arrange
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        doThrow(new DataIntegrityViolationException("teacher_id")).when(sessionRepository).flush();
+        Session update = Session.builder().name("Session").teacher(Teacher.builder().id(999L).build()).build();
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.update(1L, update));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("update with unknown teacher loaded by Hibernate -> bad request")
+    public void testUpdateSession_unknownTeacherReference_badRequest() {
+        // Arrange
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        doThrow(new JpaObjectRetrievalFailureException(new EntityNotFoundException("Unable to find Teacher with id 999")))
+                .when(sessionRepository).flush();
+        Session update = Session.builder().name("Session").teacher(Teacher.builder().id(999L).build()).build();
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.update(1L, update));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("update unknown session -> not found")
+    public void testUpdateSession_notFound() {
+        // Arrange
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> sessionService.update(1L, new Session()));
+        verify(sessionRepository, never()).flush();
+    }
+
+    @Test
+    @DisplayName("patch -> single update, patched session returned")
+    public void testPatchSession_success() {
+        // Arrange
+        SessionPatchRequest patch = new SessionPatchRequest("Renamed", null, null, null, null, 0L);
+        when(sessionRepository.patch(1L, 0L, "Renamed", null, null, null, null)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        Session patched = sessionService.patch(1L, patch);
+
+        // Assert
+        assertEquals(session, patched);
+        verify(sessionRepository, never()).save(any());
+        verify(eventPublisher, times(1)).publishEvent(SessionEvent.of(SessionEventType.SESSION_UPDATED, 1L));
+    }
+
+    @Test
+    @DisplayName("patch moving a stored occurrence of a template -> former day excluded from the template")
+    public void testPatchSession_occurrenceMoved_excluded() {
+        // Arrange
+        Date former = session.getDate();
+        Date moved = new Date(former.getTime() + 86_400_000L);
+        session.setTemplate(SessionTemplate.builder().id(9L).build());
+        SessionPatchRequest patch = new SessionPatchRequest(null, moved, null, null, null, 0L);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.patch(1L, 0L, null, moved, null, null, null)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.patch(1L, patch);
+
+        // Assert
+        verify(sessionTemplateService, times(1)).excludeOccurrence(9L, former);
+    }
+
+    @Test
+    @DisplayName("patch with a stale version -> conflict")
+    public void testPatchSession_staleVersion_conflict() {
+        // Arrange
+        session.setVersion(1L);
+        SessionPatchRequest patch = new SessionPatchRequest("Renamed", null, null, null, null, 0L);
+        when(sessionRepository.patch(1L, 0L, "Renamed", null, null, null, null)).thenReturn(0);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> sessionService.patch(1L, patch));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("patch capacity below the seats taken -> bad request")
+    public void testPatchSession_capacityBelowSeats_badRequest() {
+        // Arrange
+        session.setVersion(0L);
+        SessionPatchRequest patch = new SessionPatchRequest(null, null, null, null, 1, 0L);
+        when(sessionRepository.patch(1L, 0L, null, null, null, null, 1)).thenReturn(0);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.patch(1L, patch));
+    }
+
+    @Test
+    @DisplayName("patch raising the capacity -> waitlisted user promoted to the added seat")
+    public void testPatchSession_capacityRaised_promotesWaitlist() {
+        // Arrange
+        session.setCapacity(1).setSeatsTaken(1);
+        WaitlistEntry entry = WaitlistEntry.builder().id(7L).sessionId(1L).userId(2L).build();
+        SessionPatchRequest patch = new SessionPatchRequest(null, null, null, null, 2, 0L);
+        when(sessionRepository.findForUpdateById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.patch(1L, 0L, null, null, null, null, 2)).thenReturn(1);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(entry));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 2L)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.patch(1L, patch);
+
+        // Assert
+        verify(sessionRepository, times(1)).reserveSeat(1L);
+        verify(waitlistRepository, times(1)).delete(entry);
+        verify(eventPublisher, times(1)).publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, 1L, 2L));
+    }
+
+    @Test
+    @DisplayName("patch without capacity nor date -> row not read first, waitlist untouched")
+    public void testPatchSession_nameOnly_waitlistUntouched() {
+        // Arrange
+        SessionPatchRequest patch = new SessionPatchRequest("Renamed", null, null, null, null, 0L);
+        when(sessionRepository.patch(1L, 0L, "Renamed", null, null, null, null)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.patch(1L, patch);
+
+        // Assert
+        verify(sessionRepository, never()).findForUpdateById(any());
+        verify(waitlistRepository, never()).findFirstBySessionIdOrderByIdAsc(any());
+    }
+
+    @Test
+    @DisplayName("patch unknown session -> not found")
+    public void testPatchSession_notFound() {
+        // Arrange
+        SessionPatchRequest patch = new SessionPatchRequest("Renamed", null, null, null, null, 0L);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> sessionService.patch(1L, patch));
     }
 
     @Test
     @DisplayName("participate in session -> success")
     public void testParticipateInSession_Success() {
         // Arrange
-        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(1);
 
         // Act
-        sessionService.participate(session.getId(), user.getId());
+        ParticipationStatus status = sessionService.participate(session.getId(), user.getId());
 
         // Assert
-        verify(sessionRepository, times(1)).save(any(Session.class));
-        assertTrue(session.getUsers().contains(user));
+        assertEquals(ParticipationStatus.PARTICIPATING, status);
+        verify(sessionRepository, times(1)).addParticipant(1L, 1L);
+        verify(sessionRepository, never()).findById(any());
+        verify(sessionRepository, never()).save(any(Session.class));
+        verify(waitlistRepository, never()).addEntry(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, 1L, 1L));
     }
 
     @Test
     @DisplayName("participate in session -> session not found")
     public void testParticipateInSession_sessionNotFound() {
         // Arrange
-        when(sessionRepository.findById(session.getId())).thenReturn(Optional.empty());
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(session.getId())).thenReturn(false);
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> sessionService.participate(session.getId(), user.getId()));
 
-        verify(sessionRepository, times(1)).findById(session.getId());
-        verify(userRepository, times(1)).findById(1L);
+        verify(sessionRepository, times(1)).existsById(session.getId());
+        verify(sessionRepository, never()).addParticipant(any(), any());
     }
 
     @Test
     @DisplayName("participate in session -> user not found")
     public void testParticipateInSession_UserNotFound() {
         // Arrange
-        when(sessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(session.getId())).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> sessionService.participate(session.getId(), user.getId()));
 
-        verify(sessionRepository, times(1)).findById(session.getId());
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).existsById(1L);
     }
 
     @Test
     @DisplayName("participate in session with user already in the session -> bad request")
     public void testParticipateInSession_UserAlreadyParticipate_badRequest() {
         // Arrange
-        session.getUsers().add(user);
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(session.getId())).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
 
-        when(sessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.participate(session.getId(), user.getId()));
+    }
+
+    @Test
+    @DisplayName("participate in full session -> waitlisted")
+    public void testParticipateInFullSession_waitlisted() {
+        // Arrange
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.countParticipant(1L, 1L)).thenReturn(0L);
+        when(waitlistRepository.addEntry(1L, 1L)).thenReturn(1);
+
+        // Act
+        ParticipationStatus status = sessionService.participate(session.getId(), user.getId());
+
+        // Assert
+        assertEquals(ParticipationStatus.WAITLISTED, status);
+        verify(sessionRepository, never()).addParticipant(any(), any());
+    }
+
+    @Test
+    @DisplayName("participate in full session while participating -> bad request")
+    public void testParticipateInFullSession_alreadyParticipating_badRequest() {
+        // Arrange
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.countParticipant(1L, 1L)).thenReturn(1L);
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> sessionService.participate(session.getId(), user.getId()));
+        verify(waitlistRepository, never()).addEntry(any(), any());
+    }
+
+    @Test
+    @DisplayName("participate in full session while already waitlisted -> bad request")
+    public void testParticipateInFullSession_alreadyWaitlisted_badRequest() {
+        // Arrange
+        when(sessionRepository.reserveSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+        when(sessionRepository.countParticipant(1L, 1L)).thenReturn(0L);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(waitlistRepository.addEntry(1L, 1L)).thenReturn(0);
 
-        verify(sessionRepository, times(1)).findById(session.getId());
-        verify(userRepository, times(1)).findById(1L);
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionService.participate(session.getId(), user.getId()));
     }
 
     @Test
     @DisplayName("no longer participate in session -> success")
     public void testNoLongerParticipate_Success() {
         // Arrange
-        session.getUsers().add(user);
-        when(sessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
-        when(sessionRepository.save(any(Session.class))).thenReturn(session);
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.empty());
 
         // Act
         sessionService.noLongerParticipate(session.getId(), user.getId());
 
         // Assert
-        verify(sessionRepository, times(1)).findById(session.getId());
-        verify(sessionRepository, times(1)).save(session);
-        assertFalse(session.getUsers().contains(user));
+        verify(sessionRepository, times(1)).removeParticipant(1L, 1L);
+        verify(sessionRepository, times(1)).releaseSeat(1L);
+        verify(sessionRepository, never()).findById(any());
+        verify(sessionRepository, never()).save(any(Session.class));
+    }
+
+    @Test
+    @DisplayName("no longer participate in session -> oldest waitlisted user promoted")
+    public void testNoLongerParticipate_promotesWaitlistedUser() {
+        // Arrange
+        WaitlistEntry entry = WaitlistEntry.builder().id(7L).sessionId(1L).userId(2L).build();
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
+        when(waitlistRepository.findFirstBySessionIdOrderByIdAsc(1L)).thenReturn(Optional.of(entry));
+        when(sessionRepository.reserveSeat(1L)).thenReturn(1);
+        when(sessionRepository.addParticipant(1L, 2L)).thenReturn(1);
+
+        // Act
+        sessionService.noLongerParticipate(session.getId(), user.getId());
+
+        // Assert
+        verify(waitlistRepository, times(1)).delete(entry);
+        verify(sessionRepository, times(1)).addParticipant(1L, 2L);
+        verify(sessionRepository, times(1)).releaseSeat(1L);
+        verify(eventPublisher, times(1)).publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_LEFT, 1L, 1L));
+        verify(eventPublisher, times(1)).publishEvent(new SessionEvent(SessionEventType.PARTICIPANT_JOINED, 1L, 2L));
+    }
+
+    @Test
+    @DisplayName("no longer participate while waitlisted -> leaves the waitlist")
+    public void testNoLongerParticipate_leavesWaitlist() {
+        // Arrange
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
+        when(waitlistRepository.removeEntry(1L, 1L)).thenReturn(1);
+
+        // Act
+        sessionService.noLongerParticipate(session.getId(), user.getId());
+
+        // Assert
+        verify(sessionRepository, never()).releaseSeat(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     @DisplayName("no longer participate in session -> session not found")
     public void testNoLongerParticipateInSession_sessionNotFound() {
-        when(sessionRepository.findById(session.getId())).thenReturn(Optional.empty());
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
+        when(sessionRepository.existsById(session.getId())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> sessionService.noLongerParticipate(session.getId(), user.getId()));
 
@@ -272,12 +927,27 @@ public class SessionServiceTest {
     @DisplayName("no longer participate in session with user not in -> bad request")
     public void testNoLongerParticipateInSession_WithUserNotParticipating_badRequest() {
         // Arrange
-        when(sessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
         user.setId(5L);
+        when(sessionRepository.removeParticipant(1L, 5L)).thenReturn(0);
+        when(sessionRepository.existsById(session.getId())).thenReturn(true);
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> sessionService.noLongerParticipate(session.getId(), user.getId()));
 
-        verify(sessionRepository, times(1)).findById(session.getId());
+        verify(sessionRepository, times(1)).existsById(session.getId());
+    }
+
+    private SessionParticipant participant(Long sessionId, Long userId) {
+        return new SessionParticipant() {
+            @Override
+            public Long getSessionId() {
+                return sessionId;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+        };
     }
 }
@@ -0,0 +1,126 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.models.RecurrenceFrequency;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import com.openclassrooms.starterjwt.models.Teacher;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({SessionService.class, SessionTemplateService.class})
+public class SessionTemplateCalendarTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionTemplateService sessionTemplateService;
+
+    @Test
+    @DisplayName("Calendar of a recurring session → computed occurrences, the stored one listed once")
+    public void testFindCalendar_storedAndComputedOccurrences() {
+        // Arrange
+        Teacher teacher = persistTeacher();
+        SessionTemplate template = createTemplate(teacher);
+        Session stored = sessionTemplateService.materialize(template.getId(), at(2026, 1, 13));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<SessionCalendarDto> calendar = sessionService.findCalendar(at(2026, 1, 1), at(2026, 2, 1), teacher.getId());
+
+        // Assert
+        assertThat(sessionTemplateService.materialize(template.getId(), at(2026, 1, 13)).getId()).isEqualTo(stored.getId());
+        assertThat(calendar).extracting(row -> row.getDate().getTime())
+                .containsExactly(at(2026, 1, 6).getTime(), at(2026, 1, 13).getTime(), at(2026, 1, 27).getTime());
+        assertThat(calendar).extracting(SessionCalendarDto::getId).containsExactly(null, stored.getId(), null);
+        assertThat(calendar).extracting(SessionCalendarDto::getTemplateId).containsOnly(template.getId());
+    }
+
+    @Test
+    @DisplayName("Delete a stored occurrence → no longer listed, not computed again")
+    public void testFindCalendar_deletedOccurrence() {
+        // Arrange
+        Teacher teacher = persistTeacher();
+        SessionTemplate template = createTemplate(teacher);
+        Session stored = sessionTemplateService.materialize(template.getId(), at(2026, 1, 13));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        sessionService.delete(stored.getId());
+        entityManager.flush();
+        entityManager.clear();
+        List<SessionCalendarDto> calendar = sessionService.findCalendar(at(2026, 1, 1), at(2026, 2, 1), teacher.getId());
+
+        // Assert
+        assertThat(calendar).extracting(row -> row.getDate().getTime())
+                .containsExactly(at(2026, 1, 6).getTime(), at(2026, 1, 27).getTime());
+    }
+
+    @Test
+    @DisplayName("Move a stored occurrence → listed once, at its new date")
+    public void testFindCalendar_movedOccurrence() {
+        // Arrange
+        Teacher teacher = persistTeacher();
+        SessionTemplate template = createTemplate(teacher);
+        Session stored = sessionTemplateService.materialize(template.getId(), at(2026, 1, 13));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        sessionService.update(stored.getId(), Session.builder()
+                .name(stored.getName())
+                .description(stored.getDescription())
+                .teacher(teacher)
+                .date(at(2026, 1, 14))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        List<SessionCalendarDto> calendar = sessionService.findCalendar(at(2026, 1, 1), at(2026, 2, 1), teacher.getId());
+
+        // Assert
+        assertThat(calendar).extracting(row -> row.getDate().getTime())
+                .containsExactly(at(2026, 1, 6).getTime(), at(2026, 1, 14).getTime(), at(2026, 1, 27).getTime());
+        assertThat(calendar).extracting(SessionCalendarDto::getId).containsExactly(null, stored.getId(), null);
+    }
+
+    private Teacher persistTeacher() {
+        return entityManager.persist(Teacher.builder().firstName("First").lastName("Last").build());
+    }
+
+    private SessionTemplate createTemplate(Teacher teacher) {
+        return sessionTemplateService.create(SessionTemplate.builder()
+                .name("Tuesday flow")
+                .description("description")
+                .teacher(teacher)
+                .start(at(2026, 1, 6))
+                .frequency(RecurrenceFrequency.WEEKLY)
+                .count(52)
+                .exceptions(new HashSet<>(Set.of(LocalDate.of(2026, 1, 20))))
+                .build());
+    }
+
+    private static Date at(int year, int month, int day) {
+        return Date.from(LocalDateTime.of(year, month, day, 18, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,227 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.openclassrooms.starterjwt.dto.SessionCalendarDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.RecurrenceFrequency;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionTemplate;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionTemplateRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionTemplateServiceTest {
+
+    @Mock
+    private SessionTemplateRepository sessionTemplateRepository;
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SessionTemplateService sessionTemplateService;
+
+    private SessionTemplate weekly;
+
+    @BeforeEach
+    void setUp() {
+        // every Tuesday at 18:00, starting on Tuesday 6 January 2026
+        weekly = SessionTemplate.builder()
+                .id(9L)
+                .name("Tuesday flow")
+                .description("description")
+                .capacity(12)
+                .teacher(Teacher.builder().id(2L).firstName("Margot").lastName("DELAHAYE").build())
+                .start(at(2026, 1, 6))
+                .frequency(RecurrenceFrequency.WEEKLY)
+                .build();
+    }
+
+    @Test
+    @DisplayName("expand weekly template -> one occurrence per week inside the window")
+    public void testExpand_weekly() {
+        // Act
+        List<Date> occurrences = SessionTemplateService.expand(weekly, at(2026, 1, 1), at(2026, 1, 28));
+
+        // Assert
+        assertThat(occurrences).containsExactly(at(2026, 1, 6), at(2026, 1, 13), at(2026, 1, 20), at(2026, 1, 27));
+    }
+
+    @Test
+    @DisplayName("expand window far after the start -> only the window's occurrences, keeping wall-clock time")
+    public void testExpand_distantWindow() {
+        // Act
+        List<Date> occurrences = SessionTemplateService.expand(weekly, at(2030, 7, 1), at(2030, 7, 10));
+
+        // Assert
+        assertThat(occurrences).containsExactly(at(2030, 7, 2), at(2030, 7, 9));
+    }
+
+    @Test
+    @DisplayName("expand with count, interval and exceptions -> exceptions skipped but still counted")
+    public void testExpand_countIntervalExceptions() {
+        // Arrange
+        weekly.setFrequency(RecurrenceFrequency.DAILY).setInterval(2).setCount(4)
+                .setExceptions(Set.of(LocalDate.of(2026, 1, 8)));
+
+        // Act
+        List<Date> occurrences = SessionTemplateService.expand(weekly, at(2026, 1, 1), at(2026, 2, 1));
+
+        // Assert
+        assertThat(occurrences).containsExactly(at(2026, 1, 6), at(2026, 1, 10), at(2026, 1, 12));
+    }
+
+    @Test
+    @DisplayName("expand with until -> no occurrence after it")
+    public void testExpand_until() {
+        // Arrange
+        weekly.setUntil(at(2026, 1, 13));
+
+        // Act
+        List<Date> occurrences = SessionTemplateService.expand(weekly, at(2026, 1, 1), at(2026, 3, 1));
+
+        // Assert
+        assertThat(occurrences).containsExactly(at(2026, 1, 6), at(2026, 1, 13));
+    }
+
+    @Test
+    @DisplayName("find occurrences -> calendar rows without session id")
+    public void testFindOccurrences() {
+        // Arrange
+        when(sessionTemplateRepository.findActive(at(2026, 1, 1), at(2026, 1, 8), 2L)).thenReturn(List.of(weekly));
+
+        // Act
+        List<SessionCalendarDto> occurrences = sessionTemplateService.findOccurrences(at(2026, 1, 1), at(2026, 1, 8), 2L);
+
+        // Assert
+        assertThat(occurrences).containsExactly(
+                new SessionCalendarDto(null, "Tuesday flow", at(2026, 1, 6), 2L, "Margot", "DELAHAYE", 0, 9L));
+    }
+
+    @Test
+    @DisplayName("materialize new occurrence -> stored with the template's fields")
+    public void testMaterialize_new() {
+        // Arrange
+        when(sessionTemplateRepository.findById(9L)).thenReturn(Optional.of(weekly));
+        when(sessionRepository.findByTemplateIdAndDate(9L, at(2026, 1, 13))).thenReturn(Optional.empty());
+        when(sessionRepository.saveAndFlush(any(Session.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Session session = sessionTemplateService.materialize(9L, at(2026, 1, 13));
+
+        // Assert
+        assertThat(session.getTemplate()).isSameAs(weekly);
+        assertThat(session.getDate()).isEqualTo(at(2026, 1, 13));
+        assertThat(session.getCapacity()).isEqualTo(12);
+        assertThat(session.getTeacher().getId()).isEqualTo(2L);        verify(eventPublisher, times(1)).publishEvent(SessionEvent.of(SessionEventType.SESSION_CREATED, null));
+    }
+
+    @Test
+    @DisplayName("materialize stored occurrence -> existing session, nothing written")
+    public void testMaterialize_existing() {
+        // Arrange
+        Session stored = Session.builder().id(4L).build();
+        when(sessionTemplateRepository.findById(9L)).thenReturn(Optional.of(weekly));
+        when(sessionRepository.findByTemplateIdAndDate(9L, at(2026, 1, 13))).thenReturn(Optional.of(stored));
+
+        // Act
+        Session session = sessionTemplateService.materialize(9L, at(2026, 1, 13));
+
+        // Assert
+        assertThat(session).isSameAs(stored);
+        verify(sessionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("materialize occurrence stored concurrently -> session written by the other request")
+    public void testMaterialize_concurrent() {
+        // Arrange
+        Session stored = Session.builder().id(4L).build();
+        when(sessionTemplateRepository.findById(9L)).thenReturn(Optional.of(weekly));
+        when(sessionRepository.findByTemplateIdAndDate(9L, at(2026, 1, 13)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(sessionRepository.saveAndFlush(any(Session.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        Session session = sessionTemplateService.materialize(9L, at(2026, 1, 13));
+
+        // Assert
+        assertThat(session).isSameAs(stored);
+        verify(sessionRepository, times(2)).findByTemplateIdAndDate(9L, at(2026, 1, 13));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("materialize date that is not an occurrence -> not found")
+    public void testMaterialize_notAnOccurrence_notFound() {
+        // Arrange
+        when(sessionTemplateRepository.findById(9L)).thenReturn(Optional.of(weekly));
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> sessionTemplateService.materialize(9L, at(2026, 1, 14)));
+        verify(sessionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("exclude occurrence -> its day added to the template exceptions")
+    public void testExcludeOccurrence_addsException() {
+        // Arrange
+        weekly.setExceptions(new HashSet<>(Set.of(LocalDate.of(2026, 1, 20))));
+        when(sessionTemplateRepository.findById(9L)).thenReturn(Optional.of(weekly));
+
+        // Act
+        sessionTemplateService.excludeOccurrence(9L, at(2026, 1, 13));
+
+        // Assert
+        assertThat(weekly.getExceptions()).containsExactlyInAnyOrder(LocalDate.of(2026, 1, 13), LocalDate.of(2026, 1, 20));
+        assertThat(SessionTemplateService.expand(weekly, at(2026, 1, 1), at(2026, 1, 28)))
+                .containsExactly(at(2026, 1, 6), at(2026, 1, 27));
+        verify(sessionTemplateRepository, times(1)).save(weekly);
+    }
+
+    @Test
+    @DisplayName("create template with both count and until -> bad request")
+    public void testCreate_countAndUntil_badRequest() {
+        // Arrange
+        weekly.setCount(10).setUntil(at(2026, 6, 1));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> sessionTemplateService.create(weekly));
+        verify(sessionTemplateRepository, never()).save(any());
+    }
+
+    private static Date at(int year, int month, int day) {
+        return Date.from(LocalDateTime.of(year, month, day, 18, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
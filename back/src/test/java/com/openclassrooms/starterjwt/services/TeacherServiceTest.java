@@ -81,4 +81,15 @@ public class TeacherServiceTest {
 
         verify(teacherRepository, times(1)).findById(1L);
     }
+
+    @Test
+    @DisplayName("get reference -> proxy from repository")
+    public void testGetReference_success() {
+        when(teacherRepository.getById(1L)).thenReturn(teacher);
+
+        Teacher result = teacherService.getReference(1L);
+
+        assertThat(result).isSameAs(teacher);
+        verify(teacherRepository, times(1)).getById(1L);
+    }
 }
@@ -1,5 +1,7 @@
 package com.openclassrooms.starterjwt.services;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -10,11 +12,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.services.UserDetailsCache;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -22,6 +26,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -38,6 +45,21 @@ public class UserServiceTest {
         verify(userRepository, times(1)).deleteById(id);
     }
 
+    @Test
+    @DisplayName("delete user -> cached user details evicted")
+    public void testDelete_evictsUserDetails() {
+        // Arrange
+        User user = new User("john.doe@example.fr", "Doe", "John", "password", false);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        userService.delete(1L);
+
+        // Assert
+        verify(userDetailsCache, times(1)).evict("john.doe@example.fr");
+        verify(userRepository, times(1)).deleteById(1L);
+    }
+
     @Test
     @DisplayName("find user by id -> success")
     public void testFindById_success() {
@@ -66,4 +88,31 @@ public class UserServiceTest {
         // Assert
         assertThat(foundUser).isNull();
     }
+
+    @Test
+    @DisplayName("find users by ids -> one query, order kept, unknown and duplicate ids dropped")
+    public void testFindAllById_orderedAndFiltered() {
+        // Arrange
+        User first = User.builder().id(3L).email("c@test.com").firstName("c").lastName("c").password("p").build();
+        User second = User.builder().id(1L).email("a@test.com").firstName("a").lastName("a").password("p").build();
+        when(userRepository.findAllById(List.of(3L, 9L, 1L))).thenReturn(List.of(second, first));
+
+        // Act
+        List<User> users = userService.findAllById(Arrays.asList(3L, 9L, 3L, null, 1L));
+
+        // Assert
+        assertThat(users).containsExactly(first, second);
+        verify(userRepository, times(1)).findAllById(List.of(3L, 9L, 1L));
+    }
+
+    @Test
+    @DisplayName("find users by null ids -> empty list without query")
+    public void testFindAllById_null_emptyList() {
+        // Act
+        List<User> users = userService.findAllById(null);
+
+        // Assert
+        assertThat(users).isEmpty();
+        verifyNoInteractions(userRepository);
+    }
 }